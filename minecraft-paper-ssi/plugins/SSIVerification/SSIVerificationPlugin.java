@@ -1,43 +1,135 @@
 package com.ssi.verification;
 
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.permissions.PermissionAttachment;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SSIVerificationPlugin extends JavaPlugin implements Listener {
     
-    private static final String INTEGRATION_URL = "http://localhost:8080";
-    private Map<String, VerificationSession> verificationSessions = new HashMap<>();
-    private Map<String, Boolean> verifiedPlayers = new HashMap<>();
+    private String integrationUrl;
+    private HttpClient httpClient;
+    private ExecutorService httpExecutor;
+    private Semaphore httpPermits;
+    private Duration requestTimeout;
+    private StatusBatcher statusBatcher;
+    private volatile boolean batchStatusSupported = true;
+    private EventStream events;
+    private BenefitsEngine benefits;
+    private StateCache stateCache;
+    private long preLoginTimeoutMillis;
+    private final SessionStore sessions = new SessionStore();
     
     @Override
     public void onEnable() {
         getServer().getPluginManager().registerEvents(this, this);
+        benefits = BenefitsEngine.fromConfig(this, getConfig().getConfigurationSection("settings.verified-benefits"));
+        getServer().getPluginManager().registerEvents(benefits, this);
+        createHttpClient();
+        statusBatcher = new StatusBatcher(this::fetchStatuses, httpExecutor,
+            Math.max(0, getConfig().getLong("integration.status-batch-window-ms", 100)),
+            Math.max(1, Math.min(500, getConfig().getInt("integration.status-batch-max", 200))));
+        stateCache = new StateCache(TimeUnit.SECONDS.toMillis(Math.max(1, getConfig().getLong("integration.state-cache-ttl-seconds", 60))));
+        preLoginTimeoutMillis = Math.max(100, getConfig().getLong("integration.pre-login-timeout-ms", 2000));
+        if (getConfig().getBoolean("integration.events.enabled", true)) {
+            events = new EventStream(httpClient, URI.create(integrationUrl + "/events"), this::onIntegrationEvent,
+                getConfig().getLong("integration.events.max-reconnect-seconds", 30) * 1000L, getLogger());
+            events.start();
+        }
         getLogger().info("SSI Verification Plugin enabled!");
-        getLogger().info("Integration server should be running on: " + INTEGRATION_URL);
+        getLogger().info("Integration server should be running on: " + integrationUrl);
         
         // Check if integration server is running
         checkIntegrationServer();
+        
+        // Expiry is swept off the main thread; the store is safe to touch from there
+        long sweepTicks = 20L * Math.max(5, getConfig().getLong("settings.session-sweep-seconds", 30));
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+            int expired = sessions.sweepExpired();
+            // Entries for logins another plugin denied never see a quit
+            stateCache.purgeStale();
+            if (expired > 0) {
+                getLogger().fine("Expired " + expired + " verification sessions");
+            }
+        }, sweepTicks, sweepTicks);
     }
     
     @Override
     public void onDisable() {
+        if (events != null) {
+            events.stop();
+            events = null;
+        }
+        sessions.clear();
+        if (benefits != null) {
+            benefits.stop();
+        }
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+        }
         getLogger().info("SSI Verification Plugin disabled!");
     }
     
@@ -71,14 +163,14 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
         String playerName = player.getName();
         
         // Check if already verified
-        if (verifiedPlayers.getOrDefault(playerName, false)) {
+        if (sessions.isVerified(player.getUniqueId())) {
             player.sendMessage(ChatColor.GREEN + "✓ You are already verified!");
             return;
         }
         
         // Check if verification in progress
-        VerificationSession currentSession = verificationSessions.get(playerName);
-        if (currentSession != null && !currentSession.isExpired()) {
+        VerificationSession currentSession = sessions.pending(player.getUniqueId());
+        if (currentSession != null) {
             player.sendMessage(ChatColor.YELLOW + "Verification already in progress...");
             if (currentSession.qrUrl != null) {
                 player.sendMessage(ChatColor.AQUA + "QR Code: " + ChatColor.BLUE + currentSession.qrUrl);
@@ -102,52 +194,55 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
     }
     
     private void handleSSIVerifyCommand(Player sender, String targetPlayerName) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                String response = makeHttpRequest("GET", INTEGRATION_URL + "/status/" + targetPlayerName, null);
-                
-                // Parse response (simple parsing)
-                boolean isVerified = response.contains("\"verified\":true");
-                
-                Bukkit.getScheduler().runTask(this, () -> {
-                    sender.sendMessage(ChatColor.GOLD + "=== Verification Status ===");
-                    sender.sendMessage(ChatColor.WHITE + "Player: " + ChatColor.YELLOW + targetPlayerName);
-                    sender.sendMessage(ChatColor.WHITE + "Status: " + 
-                        (isVerified ? ChatColor.GREEN + "✓ VERIFIED" : ChatColor.RED + "✗ NOT VERIFIED"));
-                });
-                
-            } catch (Exception e) {
+        // Online players were loaded at pre-login; answer those from memory
+        Player target = Bukkit.getPlayerExact(targetPlayerName);
+        Boolean known = target != null ? isVerified(target.getUniqueId()) : null;
+        if (known != null) {
+            sendStatus(sender, target.getName(), known);
+            return;
+        }
+        
+        statusBatcher.lookup(targetPlayerName).whenComplete((isVerified, error) -> {
+            if (error != null) {
                 Bukkit.getScheduler().runTask(this, () -> {
                     sender.sendMessage(ChatColor.RED + "Failed to check verification status");
                 });
+                return;
             }
+            
+            if (target != null) stateCache.put(target.getUniqueId(), isVerified);
+            Bukkit.getScheduler().runTask(this, () -> sendStatus(sender, targetPlayerName, isVerified));
         });
     }
     
+    private void sendStatus(Player sender, String targetPlayerName, boolean isVerified) {
+        sender.sendMessage(ChatColor.GOLD + "=== Verification Status ===");
+        sender.sendMessage(ChatColor.WHITE + "Player: " + ChatColor.YELLOW + targetPlayerName);
+        sender.sendMessage(ChatColor.WHITE + "Status: " + 
+            (isVerified ? ChatColor.GREEN + "✓ VERIFIED" : ChatColor.RED + "✗ NOT VERIFIED"));
+    }
+    
+    // In-memory only: verified this run, or loaded at pre-login and still fresh; null when unknown
+    private Boolean isVerified(UUID playerId) {
+        if (sessions.isVerified(playerId)) return true;
+        return stateCache.get(playerId);
+    }
+    
     private void startVerificationProcess(Player player) throws Exception {
         String playerName = player.getName();
         
-        // Create request body
-        String requestBody = String.format("{\"playerName\":\"%s\"}", playerName);
-        
         // Make request to integration server
-        String response = makeHttpRequest("POST", INTEGRATION_URL + "/verify-player", requestBody);
+        IntegrationCodec.VerifyReply response = makeHttpRequest("POST", integrationUrl + "/verify-player",
+            IntegrationCodec.verifyRequest(playerName), IntegrationCodec::readVerifyReply);
         
-        // Parse response (simple parsing for now)
-        if (response.contains("\"success\":true")) {
-            // Extract QR URL
-            String qrUrl = extractJsonValue(response, "qrUrl");
-            String sessionId = extractJsonValue(response, "sessionId");
+        if (response.success()) {
+            String qrUrl = response.qrUrl();
+            String sessionId = response.sessionId();
             
             if (qrUrl != null && sessionId != null) {
-                // Create session
-                VerificationSession session = new VerificationSession();
-                session.playerName = playerName;
-                session.sessionId = sessionId;
-                session.qrUrl = qrUrl;
-                session.startTime = System.currentTimeMillis();
-                
-                verificationSessions.put(playerName, session);
+                // Create session; a concurrent /verify that got here first keeps its own
+                VerificationSession session = sessions.begin(player.getUniqueId(), playerName, sessionId, qrUrl);
+                if (!session.sessionId.equals(sessionId)) return;
                 
                 // Send messages to player on main thread
                 Bukkit.getScheduler().runTask(this, () -> {
@@ -158,7 +253,7 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
                 });
                 
                 // Start monitoring verification status
-                startVerificationMonitoring(player, session);
+                startVerificationMonitoring(session);
                 
             } else {
                 Bukkit.getScheduler().runTask(this, () -> {
@@ -167,7 +262,7 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
             }
             
         } else {
-            String message = extractJsonValue(response, "message");
+            String message = response.message();
             final String errorMessage = message != null ? message : "Verification failed to start";
             
             Bukkit.getScheduler().runTask(this, () -> {
@@ -176,69 +271,126 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
         }
     }
     
-    private void startVerificationMonitoring(Player player, VerificationSession session) {
-        // Check verification status every 3 seconds
-        Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
-            private int attempts = 0;
-            private final int maxAttempts = 100; // 5 minutes
-            
-            @Override
-            public void run() {
-                attempts++;
+    private void startVerificationMonitoring(VerificationSession session) {
+        StatusMonitor monitor = new StatusMonitor(session, statusBatcher,
+            () -> events != null && events.isConnected(),
+            this::completeVerification,
+            this::onVerificationTimeout,
+            error -> getLogger().warning("Failed to check verification status: " + error.getMessage()),
+            100); // 5 minutes
+        
+        // Check verification status every 3 seconds; the handle lives with the session, which cancels it when it ends
+        BukkitTask task = Bukkit.getScheduler().runTaskTimerAsynchronously(this, monitor, 60L, 60L);
+        session.bindMonitor(task::cancel);
+    }
+    
+    private void onVerificationTimeout(VerificationSession session) {
+        if (!sessions.end(session, SessionStore.State.EXPIRED)) return;
+        
+        Bukkit.getScheduler().runTask(this, () -> {
+            Player player = Bukkit.getPlayer(session.playerId);
+            if (player != null) {
+                player.sendMessage(ChatColor.RED + "Verification timeout. Try /verify again.");
+            }
+        });
+    }
+    
+    // Reached from both the event stream and the status poll; whichever comes first wins
+    private void completeVerification(VerificationSession session) {
+        if (session == null || !sessions.complete(session)) return;
+        String playerName = session.playerName;
+        stateCache.put(session.playerId, true);
+        
+        // Verification successful!
+        
+        Bukkit.getScheduler().runTask(this, () -> {
+            Player player = Bukkit.getPlayerExact(playerName);
+            if (player != null) {
+                player.sendMessage(ChatColor.GREEN + "✓ Identity verification completed successfully!");
                 
-                try {
-                    String response = makeHttpRequest("GET", INTEGRATION_URL + "/status/" + session.playerName, null);
-                    
-                    if (response.contains("\"verified\":true")) {
-                        // Verification successful!
-                        verifiedPlayers.put(session.playerName, true);
-                        verificationSessions.remove(session.playerName);
-                        
-                        Bukkit.getScheduler().runTask(SSIVerificationPlugin.this, () -> {
-                            player.sendMessage(ChatColor.GREEN + "✓ Identity verification completed successfully!");
-                            
-                            // Apply verified benefits
-                            applyVerifiedBenefits(player);
-                            
-                            // Broadcast to server
-                            Bukkit.broadcastMessage(ChatColor.GOLD + player.getName() + 
-                                ChatColor.GREEN + " has been verified with SSI credentials!");
-                        });
-                        
-                        // Stop monitoring
-                        return;
-                    }
-                    
-                } catch (Exception e) {
-                    getLogger().warning("Failed to check verification status: " + e.getMessage());
+                // Apply verified benefits
+                applyVerifiedBenefits(player);
+            }
+            
+            // Broadcast to server
+            if (getConfig().getBoolean("settings.verified-benefits.broadcast-verification", true)) {
+                Bukkit.broadcastMessage(ChatColor.GOLD + playerName + 
+                    ChatColor.GREEN + " has been verified with SSI credentials!");
+            }
+        });
+    }
+    
+    // Runs on the event listener thread
+    private void onIntegrationEvent(EventStream.Event event) {
+        switch (event.type()) {
+            case "verification-completed" -> {
+                completeVerification(sessions.forName(IntegrationCodec.readPlayerName(event.data())));
+            }
+            case "verification-failed", "verification-expired" -> {
+                // The integration server already told the player; just free the slot for a new /verify
+                VerificationSession session = sessions.forName(IntegrationCodec.readPlayerName(event.data()));
+                if (session != null) {
+                    sessions.end(session, "verification-failed".equals(event.type())
+                        ? SessionStore.State.FAILED : SessionStore.State.EXPIRED);
                 }
-                
-                // Stop monitoring after max attempts
-                if (attempts >= maxAttempts) {
-                    verificationSessions.remove(session.playerName);
-                    
-                    Bukkit.getScheduler().runTask(SSIVerificationPlugin.this, () -> {
-                        player.sendMessage(ChatColor.RED + "Verification timeout. Try /verify again.");
+            }
+            case "reset" -> {
+                // The server could not replay from our last event; re-check everyone still pending
+                for (VerificationSession session : sessions.pendingSessions()) {
+                    statusBatcher.lookup(session.playerName).thenAccept(verified -> {
+                        if (verified) completeVerification(session);
                     });
                 }
             }
-        }, 60L, 60L); // Start after 3 seconds, repeat every 3 seconds
+            default -> {
+            }
+        }
     }
     
     private void applyVerifiedBenefits(Player player) {
-        // Give glowing effect
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), 
-            "effect give " + player.getName() + " minecraft:glowing 999999 0 true");
+        // Applied from the benefits queue within its per-tick budget
+        benefits.grant(player.getUniqueId());
         
         player.sendMessage(ChatColor.GREEN + "✓ You now have verified player benefits!");
     }
     
+    // Runs on the login thread, so the integration server round-trip never touches the tick;
+    // a reconnect storm is answered by a handful of batched status requests
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID playerId = event.getUniqueId();
+        if (sessions.isVerified(playerId)) return;
+        
+        try {
+            stateCache.put(playerId, statusBatcher.lookup(event.getName()).get(preLoginTimeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (Exception e) {
+            // Never hold up or refuse a login over this; the join handler looks again in the background
+            getLogger().fine("Could not load verification state for " + event.getName() + ": " + e.getMessage());
+        }
+    }
+    
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
-        // Check if player is verified
-        if (verifiedPlayers.getOrDefault(player.getName(), false)) {
+        // Memory only (snapshot or pre-login cache); a miss is resolved off the main thread
+        Boolean verified = isVerified(player.getUniqueId());
+        if (verified == null) {
+            statusBatcher.lookup(player.getName()).whenComplete((isVerified, error) -> {
+                boolean known = error == null && isVerified;
+                if (error == null) stateCache.put(player.getUniqueId(), isVerified);
+                Bukkit.getScheduler().runTask(this, () -> {
+                    if (player.isOnline()) greet(player, known);
+                });
+            });
+            return;
+        }
+        greet(player, verified);
+    }
+    
+    private void greet(Player player, boolean verified) {
+        if (verified) {
             player.sendMessage(ChatColor.GREEN + "Welcome back! You are verified.");
             applyVerifiedBenefits(player);
         } else {
@@ -249,10 +401,18 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
         }
     }
     
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        benefits.forget(event.getPlayer().getUniqueId());
+        stateCache.evict(event.getPlayer().getUniqueId());
+        // Nobody is left to scan the QR code; stop polling for them
+        sessions.cancel(event.getPlayer().getUniqueId());
+    }
+    
     private void checkIntegrationServer() {
         CompletableFuture.runAsync(() -> {
             try {
-                makeHttpRequest("GET", INTEGRATION_URL + "/status/test", null);
+                makeHttpRequest("GET", statusUrl("test"), null, IntegrationCodec::readVerified);
                 getLogger().info("✓ Integration server is running");
             } catch (Exception e) {
                 getLogger().warning("⚠ Integration server not accessible: " + e.getMessage());
@@ -261,58 +421,828 @@ public class SSIVerificationPlugin extends JavaPlugin implements Listener {
         });
     }
     
-    private String makeHttpRequest(String method, String urlString, String requestBody) throws Exception {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod(method);
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setConnectTimeout(5000);
-        connection.setReadTimeout(10000);
+    private String statusUrl(String playerName) {
+        return integrationUrl + "/status/" + URLEncoder.encode(playerName, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+    
+    // One client for every call to the integration server, so status polls reuse kept-alive connections
+    private void createHttpClient() {
+        integrationUrl = getConfig().getString("integration.url", "http://localhost:8080").replaceAll("/+$", "");
+        requestTimeout = Duration.ofMillis(getConfig().getLong("integration.request-timeout-ms", 10000));
+        int maxConnections = Math.max(1, getConfig().getInt("integration.max-connections", 8));
         
-        if (requestBody != null) {
-            connection.setDoOutput(true);
-            try (OutputStream os = connection.getOutputStream()) {
-                os.write(requestBody.getBytes());
+        HttpClient.Version version;
+        try {
+            version = HttpClient.Version.valueOf(getConfig().getString("integration.http-version", "HTTP_1_1").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("Unknown integration.http-version, using HTTP_1_1");
+            version = HttpClient.Version.HTTP_1_1;
+        }
+        
+        // Runs the blocking status requests; the client keeps its own executor so these threads
+        // never wait on work queued behind them
+        AtomicInteger threadCount = new AtomicInteger();
+        httpExecutor = Executors.newFixedThreadPool(Math.max(1, getConfig().getInt("integration.worker-threads", 2)), runnable -> {
+            Thread thread = new Thread(runnable, "SSI-Integration-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // HTTP/1.1 holds one connection per request in flight, so this also caps the pool
+        httpPermits = new Semaphore(maxConnections);
+        httpClient = HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(Duration.ofMillis(getConfig().getLong("integration.connect-timeout-ms", 5000)))
+            .build();
+    }
+    
+    // Backs the status batcher; servers without POST /status are answered one GET at a time
+    private Map<String, Boolean> fetchStatuses(List<String> players) throws Exception {
+        if (batchStatusSupported) {
+            try {
+                return makeHttpRequest("POST", integrationUrl + "/status",
+                    IntegrationCodec.statusRequest(players), IntegrationCodec::readStatuses);
+            } catch (IntegrationException e) {
+                if (e.status != 404 && e.status != 405) throw e;
+                getLogger().warning("Integration server has no batch status endpoint; falling back to per-player lookups");
+                batchStatusSupported = false;
             }
         }
         
-        int responseCode = connection.getResponseCode();
+        Map<String, Boolean> statuses = new HashMap<>();
+        for (String player : players) {
+            statuses.put(player, makeHttpRequest("GET", statusUrl(player), null, IntegrationCodec::readVerified));
+        }
+        return statuses;
+    }
+    
+    // The reply is decoded straight off the response stream; it is never collected into a String
+    private <T> T makeHttpRequest(String method, String urlString, String requestBody,
+                                  IntegrationCodec.ReplyReader<T> replyReader) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(urlString))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .method(method, requestBody != null
+                ? HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody())
+            .build();
+        
+        if (!httpPermits.tryAcquire(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new Exception("Too many integration requests in flight");
+        }
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            int responseCode = response.statusCode();
+            
+            // Closing the reader hands the connection back to the pool
+            try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8)))) {
+                if (responseCode >= 200 && responseCode < 300) {
+                    return replyReader.read(reader);
+                }
+                
+                String message = null;
+                try {
+                    message = IntegrationCodec.readMessage(reader);
+                } catch (IOException | IllegalStateException e) {
+                    // Not a JSON error body (e.g. a proxy's HTML page); the status code is enough
+                }
+                throw new IntegrationException(responseCode, "HTTP " + responseCode + (message != null ? ": " + message : ""));
+            }
+        } finally {
+            httpPermits.release();
+        }
+    }
+    
+    /**
+     * Verification state per UUID as loaded at pre-login. Entries go stale after a short TTL (the
+     * integration server stays the source of truth) and are dropped when the player quits.
+     */
+    static final class StateCache {
+        
+        private record Entry(boolean verified, long loadedAt) { }
+        
+        private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+        private final long ttlMillis;
+        
+        StateCache(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+        
+        void put(UUID playerId, boolean verified) {
+            entries.put(playerId, new Entry(verified, System.currentTimeMillis()));
+        }
+        
+        // null when never loaded or past its TTL
+        Boolean get(UUID playerId) {
+            Entry entry = entries.get(playerId);
+            if (entry == null || System.currentTimeMillis() - entry.loadedAt() > ttlMillis) return null;
+            return entry.verified();
+        }
+        
+        void evict(UUID playerId) {
+            entries.remove(playerId);
+        }
+        
+        void purgeStale() {
+            long cutoff = System.currentTimeMillis() - ttlMillis;
+            entries.values().removeIf(entry -> entry.loadedAt() < cutoff);
+        }
+    }
+    
+    /**
+     * Grants verified players their configured potion effects, permission nodes and chat prefix
+     * through the Bukkit/Paper API rather than console commands. The prefix component is built once
+     * from config; grants queue up from any thread and a one-tick timer applies at most
+     * {@code apply-per-tick} of them, so reconnect storms do not land in a single tick.
+     */
+    static final class BenefitsEngine implements Listener {
+        
+        private final JavaPlugin plugin;
+        private final List<PotionEffect> effects;
+        private final Map<String, Boolean> permissions;
+        private final Component chatPrefix;
+        private final int perTick;
+        private final ConcurrentLinkedQueue<UUID> pending = new ConcurrentLinkedQueue<>();
+        private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> prefixed = ConcurrentHashMap.newKeySet();
+        // Touched on the main thread only
+        private final Map<UUID, PermissionAttachment> attachments = new HashMap<>();
+        private final BukkitTask drainTask;
+        
+        private BenefitsEngine(JavaPlugin plugin, List<PotionEffect> effects, Map<String, Boolean> permissions,
+                               Component chatPrefix, int perTick) {
+            this.plugin = plugin;
+            this.effects = List.copyOf(effects);
+            this.permissions = Map.copyOf(permissions);
+            this.chatPrefix = chatPrefix;
+            this.perTick = Math.max(1, perTick);
+            this.drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+        
+        static BenefitsEngine fromConfig(JavaPlugin plugin, ConfigurationSection config) {
+            List<PotionEffect> effects = new ArrayList<>();
+            Map<String, Boolean> permissions = new LinkedHashMap<>();
+            Component prefix = null;
+            
+            if (config == null) {
+                // Older config.yml without the section: keep the original glowing benefit
+                effects.add(new PotionEffect(PotionEffectType.GLOWING, PotionEffect.INFINITE_DURATION, 0, true, false));
+                return new BenefitsEngine(plugin, effects, permissions, null, 20);
+            }
+            
+            for (Map<?, ?> entry : config.getMapList("effects")) {
+                Object type = entry.get("type");
+                NamespacedKey key = type != null ? NamespacedKey.fromString(type.toString().toLowerCase(Locale.ROOT)) : null;
+                PotionEffectType effectType = key != null ? Registry.EFFECT.get(key) : null;
+                if (effectType == null) {
+                    plugin.getLogger().warning("Unknown potion effect in verified-benefits: " + type);
+                    continue;
+                }
+                int seconds = entry.get("duration-seconds") instanceof Number number ? number.intValue() : -1;
+                int amplifier = entry.get("amplifier") instanceof Number number ? number.intValue() : 0;
+                effects.add(new PotionEffect(effectType, seconds < 0 ? PotionEffect.INFINITE_DURATION : seconds * 20,
+                    amplifier, Boolean.TRUE.equals(entry.get("ambient")), !Boolean.FALSE.equals(entry.get("particles"))));
+            }
+            
+            ConfigurationSection nodes = config.getConfigurationSection("permissions");
+            if (nodes != null) {
+                nodes.getKeys(false).forEach(node -> permissions.put(node, nodes.getBoolean(node, true)));
+            }
+            
+            String legacyPrefix = config.getString("chat-prefix", "");
+            if (legacyPrefix != null && !legacyPrefix.isEmpty()) {
+                prefix = LegacyComponentSerializer.legacyAmpersand().deserialize(legacyPrefix);
+            }
+            return new BenefitsEngine(plugin, effects, permissions, prefix, config.getInt("apply-per-tick", 20));
+        }
+        
+        void grant(UUID playerId) {
+            if (queued.add(playerId)) pending.add(playerId);
+        }
+        
+        void forget(UUID playerId) {
+            PermissionAttachment attachment = attachments.remove(playerId);
+            if (attachment != null) attachment.remove();
+            prefixed.remove(playerId);
+        }
+        
+        void stop() {
+            drainTask.cancel();
+            attachments.values().forEach(PermissionAttachment::remove);
+            attachments.clear();
+            prefixed.clear();
+        }
+        
+        private void drain() {
+            for (int i = 0; i < perTick; i++) {
+                UUID playerId = pending.poll();
+                if (playerId == null) return;
+                queued.remove(playerId);
+                
+                Player player = Bukkit.getPlayer(playerId);
+                if (player == null) continue;
+                if (!effects.isEmpty()) player.addPotionEffects(effects);
+                if (!permissions.isEmpty()) {
+                    PermissionAttachment attachment = attachments.computeIfAbsent(playerId, id -> player.addAttachment(plugin));
+                    permissions.forEach(attachment::setPermission);
+                }
+                if (chatPrefix != null) prefixed.add(playerId);
+            }
+        }
+        
+        @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+        public void onChat(AsyncChatEvent event) {
+            if (chatPrefix == null || !prefixed.contains(event.getPlayer().getUniqueId())) return;
+            ChatRenderer original = event.renderer();
+            event.renderer((source, displayName, message, viewer) ->
+                chatPrefix.append(original.render(source, displayName, message, viewer)));
+        }
+    }
+    
+    /**
+     * One persistent listener thread on the integration server's Server-Sent Events stream. After a
+     * dropped connection it reconnects with backoff and sends {@code Last-Event-ID}, so the server
+     * replays whatever was published in between.
+     */
+    static final class EventStream {
+        
+        record Event(String id, String type, String data) { }
+        
+        private static final long INITIAL_BACKOFF_MILLIS = 1000;
+        
+        private final HttpClient client;
+        private final URI uri;
+        private final Consumer<Event> handler;
+        private final long maxBackoffMillis;
+        private final Logger logger;
+        
+        private volatile String lastEventId;
+        private volatile boolean connected;
+        private volatile boolean running;
+        private volatile InputStream body;
+        private Thread listener;
+        
+        EventStream(HttpClient client, URI uri, Consumer<Event> handler, long maxBackoffMillis, Logger logger) {
+            this.client = client;
+            this.uri = uri;
+            this.handler = handler;
+            this.maxBackoffMillis = Math.max(INITIAL_BACKOFF_MILLIS, maxBackoffMillis);
+            this.logger = logger;
+        }
+        
+        void start() {
+            running = true;
+            listener = new Thread(this::run, "SSI-Events");
+            listener.setDaemon(true);
+            listener.start();
+        }
+        
+        void stop() {
+            running = false;
+            closeBody();
+            if (listener != null) {
+                listener.interrupt();
+                listener = null;
+            }
+        }
+        
+        boolean isConnected() {
+            return connected;
+        }
+        
+        private void run() {
+            long backoff = INITIAL_BACKOFF_MILLIS;
+            while (running) {
+                try {
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                        .header("Accept", "text/event-stream")
+                        .GET();
+                    if (lastEventId != null) {
+                        request.header("Last-Event-ID", lastEventId);
+                    }
+                    
+                    HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                    body = response.body();
+                    if (response.statusCode() != 200) {
+                        throw new IOException("HTTP " + response.statusCode());
+                    }
+                    
+                    connected = true;
+                    backoff = INITIAL_BACKOFF_MILLIS;
+                    logger.info("Connected to integration event stream");
+                    read(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    if (running) {
+                        logger.fine("Integration event stream dropped: " + e.getMessage());
+                    }
+                } finally {
+                    if (connected) {
+                        logger.info("Integration event stream disconnected; status polling takes over until it is back");
+                    }
+                    connected = false;
+                    closeBody();
+                }
+                
+                if (!running) return;
+                try {
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff / 4 + 1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoff = Math.min(maxBackoffMillis, backoff * 2);
+            }
+        }
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                responseCode >= 200 && responseCode < 300 ? 
-                connection.getInputStream() : connection.getErrorStream()))) {
+        // Minimal text/event-stream parser: id, event and (multi-line) data fields; comments are heartbeats
+        private void read(BufferedReader reader) throws IOException {
+            String id = null;
+            String type = "message";
+            StringBuilder data = new StringBuilder();
             
-            StringBuilder response = new StringBuilder();
             String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+            while (running && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (id != null) lastEventId = id;
+                    if (data.length() > 0) {
+                        try {
+                            handler.accept(new Event(lastEventId, type, data.toString()));
+                        } catch (RuntimeException e) {
+                            logger.log(Level.WARNING, "Failed to handle integration event " + type, e);
+                        }
+                    }
+                    id = null;
+                    type = "message";
+                    data.setLength(0);
+                    continue;
+                }
+                if (line.charAt(0) == ':') continue;
+                
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                int valueStart = colon < 0 ? line.length() : colon + 1;
+                if (valueStart < line.length() && line.charAt(valueStart) == ' ') valueStart++;
+                String value = line.substring(valueStart);
+                
+                switch (field) {
+                    case "id" -> id = value;
+                    case "event" -> type = value;
+                    case "data" -> {
+                        if (data.length() > 0) data.append('\n');
+                        data.append(value);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        
+        private void closeBody() {
+            InputStream current = body;
+            body = null;
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException ignored) {
+                    // Already broken; nothing to release
+                }
+            }
+        }
+    }
+    
+    static class IntegrationException extends Exception {
+        private static final long serialVersionUID = 1L;
+        
+        final int status;
+        
+        IntegrationException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+    
+    /**
+     * Coalesces status lookups: every player asked about within one window goes out in a single
+     * batch request, and lookups for a player already queued share that player's answer.
+     */
+    public static final class StatusBatcher {
+        
+        @FunctionalInterface
+        public interface Fetch {
+            Map<String, Boolean> fetch(List<String> players) throws Exception;
+        }
+        
+        private final Fetch fetch;
+        private final Executor executor;
+        private final long windowMillis;
+        private final int maxBatch;
+        private Map<String, CompletableFuture<Boolean>> pending = new LinkedHashMap<>();
+        
+        public StatusBatcher(Fetch fetch, Executor executor, long windowMillis, int maxBatch) {
+            this.fetch = fetch;
+            this.executor = executor;
+            this.windowMillis = windowMillis;
+            this.maxBatch = maxBatch;
+        }
+        
+        public CompletableFuture<Boolean> lookup(String playerName) {
+            CompletableFuture<Boolean> result;
+            int queued;
+            synchronized (this) {
+                result = pending.get(playerName);
+                if (result != null) return result;
+                result = new CompletableFuture<>();
+                pending.put(playerName, result);
+                queued = pending.size();
             }
             
-            if (responseCode >= 200 && responseCode < 300) {
-                return response.toString();
-            } else {
-                throw new Exception("HTTP " + responseCode + ": " + response.toString());
+            // The first lookup opens the window; a full batch goes out without waiting for it.
+            // Flushes block on HTTP, so they run on the caller's executor rather than the common pool
+            try {
+                if (queued >= maxBatch) {
+                    executor.execute(this::flush);
+                } else if (queued == 1) {
+                    CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS, executor).execute(this::flush);
+                }
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        
+        private void flush() {
+            Map<String, CompletableFuture<Boolean>> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) return;
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            
+            try {
+                Map<String, Boolean> statuses = fetch.fetch(new ArrayList<>(batch.keySet()));
+                batch.forEach((player, result) -> result.complete(statuses.getOrDefault(player, false)));
+            } catch (Exception e) {
+                batch.values().forEach(result -> result.completeExceptionally(e));
             }
         }
     }
     
-    private String extractJsonValue(String json, String key) {
-        String searchKey = "\"" + key + "\":\"";
-        int startIndex = json.indexOf(searchKey);
-        if (startIndex == -1) return null;
+    /**
+     * Integration server JSON. Replies are read token by token with Gson's {@link JsonReader}, keeping
+     * only the top-level fields the plugin acts on and skipping everything else unparsed; request
+     * bodies are written with {@link JsonWriter} so player names are escaped correctly.
+     */
+    public static final class IntegrationCodec {
         
-        startIndex += searchKey.length();
-        int endIndex = json.indexOf("\"", startIndex);
-        if (endIndex == -1) return null;
+        record VerifyReply(boolean success, boolean verified, String qrUrl, String sessionId, String message) { }
+        
+        @FunctionalInterface
+        interface ReplyReader<T> {
+            T read(JsonReader in) throws IOException;
+        }
         
-        return json.substring(startIndex, endIndex);
+        private IntegrationCodec() {
+        }
+        
+        static String verifyRequest(String playerName) {
+            StringWriter out = new StringWriter(32 + playerName.length());
+            try (JsonWriter writer = new JsonWriter(out)) {
+                writer.beginObject().name("playerName").value(playerName).endObject();
+            } catch (IOException e) {
+                // StringWriter never throws
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        }
+        
+        // POST /verify-player: {success, qrUrl, sessionId} or {success:false, message[, verified]}
+        static VerifyReply readVerifyReply(JsonReader in) throws IOException {
+            boolean success = false;
+            boolean verified = false;
+            String qrUrl = null;
+            String sessionId = null;
+            String message = null;
+            String error = null;
+            
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success" -> success = nextBoolean(in);
+                    case "verified" -> verified = nextBoolean(in);
+                    case "qrUrl" -> qrUrl = nextString(in);
+                    case "sessionId" -> sessionId = nextString(in);
+                    case "message" -> message = nextString(in);
+                    case "error" -> error = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new VerifyReply(success, verified, qrUrl, sessionId, message != null ? message : error);
+        }
+        
+        public static String statusRequest(List<String> players) {
+            StringWriter out = new StringWriter(16 + players.size() * 20);
+            try (JsonWriter writer = new JsonWriter(out)) {
+                writer.beginObject().name("players").beginArray();
+                for (String player : players) {
+                    writer.value(player);
+                }
+                writer.endArray().endObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        }
+        
+        // POST /status: {statuses: [{playerName, verified, session}, ...]}; session details are skipped
+        public static Map<String, Boolean> readStatuses(JsonReader in) throws IOException {
+            Map<String, Boolean> statuses = new HashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!"statuses".equals(in.nextName()) || in.peek() != JsonToken.BEGIN_ARRAY) {
+                    in.skipValue();
+                    continue;
+                }
+                
+                in.beginArray();
+                while (in.hasNext()) {
+                    String playerName = null;
+                    boolean verified = false;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "playerName" -> playerName = nextString(in);
+                            case "verified" -> verified = nextBoolean(in);
+                            default -> in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    if (playerName != null) statuses.put(playerName, verified);
+                }
+                in.endArray();
+            }
+            in.endObject();
+            return statuses;
+        }
+        
+        // GET /status/{player}: only the top-level flag matters, so reading stops as soon as it is seen
+        static boolean readVerified(JsonReader in) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("verified".equals(in.nextName())) {
+                    return nextBoolean(in);
+                }
+                in.skipValue();
+            }
+            return false;
+        }
+        
+        // Event payloads are small JSON objects; only the player they concern is needed
+        static String readPlayerName(String json) {
+            try (JsonReader in = new JsonReader(new StringReader(json))) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    if ("playerName".equals(in.nextName())) {
+                        return nextString(in);
+                    }
+                    in.skipValue();
+                }
+                return null;
+            } catch (IOException | IllegalStateException e) {
+                return null;
+            }
+        }
+        
+        static String readMessage(JsonReader in) throws IOException {
+            String error = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "message" -> {
+                        return nextString(in);
+                    }
+                    case "error" -> error = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            return error;
+        }
+        
+        private static boolean nextBoolean(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.BOOLEAN) {
+                return in.nextBoolean();
+            }
+            in.skipValue();
+            return false;
+        }
+        
+        private static String nextString(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                return in.nextString();
+            }
+            in.skipValue();
+            return null;
+        }
+    }
+    
+    /**
+     * Verification sessions and verified players keyed by UUID, safe to use from the main thread,
+     * scheduler workers and HTTP callbacks alike. A session leaves PENDING exactly once via
+     * compare-and-set, so a push event and a poll racing on the same completion cannot both act.
+     * Verified players are published as an immutable copy-on-write set for join-time checks.
+     */
+    public static final class SessionStore {
+        
+        public enum State { PENDING, VERIFIED, FAILED, EXPIRED, CANCELLED }
+        
+        private final ConcurrentHashMap<UUID, VerificationSession> sessions = new ConcurrentHashMap<>();
+        // The integration server only knows player names
+        private final ConcurrentHashMap<String, UUID> byName = new ConcurrentHashMap<>();
+        private final Object verifiedWriteLock = new Object();
+        private volatile Set<UUID> verified = Set.of();
+        
+        // Returns the session now pending for the player: the new one, or one another thread started first
+        public VerificationSession begin(UUID playerId, String playerName, String sessionId, String qrUrl) {
+            VerificationSession created = new VerificationSession(playerId, playerName, sessionId, qrUrl);
+            VerificationSession[] replaced = new VerificationSession[1];
+            VerificationSession current = sessions.compute(playerId, (id, existing) -> {
+                if (existing != null && existing.isPending() && !existing.isExpired()) return existing;
+                replaced[0] = existing;
+                return created;
+            });
+            if (current == created) {
+                // An expired session the sweep has not reached yet must not complete later
+                if (replaced[0] != null && replaced[0].state.compareAndSet(State.PENDING, State.EXPIRED)) {
+                    replaced[0].cancelMonitor();
+                }
+                byName.put(key(playerName), playerId);
+            }
+            return current;
+        }
+        
+        public VerificationSession pending(UUID playerId) {
+            VerificationSession session = sessions.get(playerId);
+            return session != null && session.isPending() && !session.isExpired() ? session : null;
+        }
+        
+        public VerificationSession forName(String playerName) {
+            if (playerName == null) return null;
+            UUID playerId = byName.get(key(playerName));
+            return playerId != null ? sessions.get(playerId) : null;
+        }
+        
+        public List<VerificationSession> pendingSessions() {
+            List<VerificationSession> pending = new ArrayList<>();
+            for (VerificationSession session : sessions.values()) {
+                if (session.isPending()) pending.add(session);
+            }
+            return pending;
+        }
+        
+        public boolean complete(VerificationSession session) {
+            if (!end(session, State.VERIFIED)) return false;
+            synchronized (verifiedWriteLock) {
+                Set<UUID> next = new HashSet<>(verified);
+                next.add(session.playerId);
+                verified = Set.copyOf(next);
+            }
+            return true;
+        }
+        
+        // Moves a pending session to a final state, stops its monitor and unlinks it; false if something else already did
+        public boolean end(VerificationSession session, State outcome) {
+            if (!session.state.compareAndSet(State.PENDING, outcome)) return false;
+            session.cancelMonitor();
+            sessions.remove(session.playerId, session);
+            byName.remove(key(session.playerName), session.playerId);
+            return true;
+        }
+        
+        public boolean cancel(UUID playerId) {
+            VerificationSession session = sessions.get(playerId);
+            return session != null && end(session, State.CANCELLED);
+        }
+        
+        public boolean isVerified(UUID playerId) {
+            return verified.contains(playerId);
+        }
+        
+        public Set<UUID> verifiedSnapshot() {
+            return verified;
+        }
+        
+        public int size() {
+            return sessions.size();
+        }
+        
+        public int sweepExpired() {
+            int expired = 0;
+            for (VerificationSession session : sessions.values()) {
+                if (session.isExpired() && end(session, State.EXPIRED)) expired++;
+            }
+            return expired;
+        }
+        
+        public void clear() {
+            sessions.values().forEach(session -> end(session, State.CANCELLED));
+        }
+        
+        private static String key(String playerName) {
+            return playerName.toLowerCase(Locale.ROOT);
+        }
     }
     
-    private static class VerificationSession {
-        String playerName;
-        String sessionId;
-        String qrUrl;
-        long startTime;
+    /**
+     * Periodic status check for one session. It polls only while the push channel is down and gives
+     * up after {@code maxAttempts} runs; stopping the task itself is left to the session it is bound to.
+     */
+    public static final class StatusMonitor implements Runnable {
+        private final VerificationSession session;
+        private final StatusBatcher statusBatcher;
+        private final BooleanSupplier pushConnected;
+        private final Consumer<VerificationSession> onVerified;
+        private final Consumer<VerificationSession> onTimeout;
+        private final Consumer<Throwable> onError;
+        private final int maxAttempts;
+        // Runs of one repeating task never overlap
+        private int attempts;
+        
+        public StatusMonitor(VerificationSession session, StatusBatcher statusBatcher, BooleanSupplier pushConnected,
+                             Consumer<VerificationSession> onVerified, Consumer<VerificationSession> onTimeout,
+                             Consumer<Throwable> onError, int maxAttempts) {
+            this.session = session;
+            this.statusBatcher = statusBatcher;
+            this.pushConnected = pushConnected;
+            this.onVerified = onVerified;
+            this.onTimeout = onTimeout;
+            this.onError = onError;
+            this.maxAttempts = maxAttempts;
+        }
+        
+        @Override
+        public void run() {
+            // Ended between runs (or before the handle was bound); make sure the task goes away
+            if (!session.isPending()) {
+                session.cancelMonitor();
+                return;
+            }
+            attempts++;
+            
+            // While the event stream is up, completions are pushed; polling is only the fallback
+            if (!pushConnected.getAsBoolean()) {
+                // Answered together with every other pending player in the same batch window
+                statusBatcher.lookup(session.playerName).whenComplete((verified, error) -> {
+                    if (error != null) {
+                        onError.accept(error);
+                    } else if (verified) {
+                        onVerified.accept(session);
+                    }
+                });
+            }
+            
+            // Stop monitoring after max attempts
+            if (attempts >= maxAttempts) {
+                onTimeout.accept(session);
+            }
+        }
+    }
+    
+    public static final class VerificationSession {
+        public final UUID playerId;
+        public final String playerName;
+        public final String sessionId;
+        public final String qrUrl;
+        public final long startTime = System.currentTimeMillis();
+        private final AtomicReference<SessionStore.State> state = new AtomicReference<>(SessionStore.State.PENDING);
+        private final AtomicReference<Runnable> monitor = new AtomicReference<>();
+        
+        VerificationSession(UUID playerId, String playerName, String sessionId, String qrUrl) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.sessionId = sessionId;
+            this.qrUrl = qrUrl;
+        }
+        
+        public SessionStore.State getState() {
+            return state.get();
+        }
+        
+        public boolean isPending() {
+            return state.get() == SessionStore.State.PENDING;
+        }
+        
+        // The session owns its monitor task; if it already ended, the task is cancelled straight away
+        public void bindMonitor(Runnable cancel) {
+            monitor.set(cancel);
+            if (!isPending()) cancelMonitor();
+        }
+        
+        void cancelMonitor() {
+            Runnable cancel = monitor.getAndSet(null);
+            if (cancel != null) cancel.run();
+        }
         
         boolean isExpired() {
             return System.currentTimeMillis() - startTime > 600000; // 10 minutes
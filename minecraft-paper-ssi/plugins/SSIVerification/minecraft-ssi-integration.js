@@ -28,12 +28,26 @@ const CONFIG = {
     CRED_DEF_ID: process.env.CRED_DEF_ID || 'AbH2V5oKsrPXbzbKKrpU3f:3:CL:2872881:University-Certificate'
 };
 
+const MAX_STATUS_BATCH = 500;
+// Events kept for Last-Event-ID replay after a listener reconnects
+const EVENT_BUFFER_SIZE = 1000;
+const EVENT_HEARTBEAT_MS = 15000;
+
 class MinecraftSSIIntegration {
     constructor() {
         this.app = express();
         this.verificationSessions = new Map(); // playerName -> session
         this.verifiedPlayers = new Set();
         
+        // Push channel state: ids are `${bootId}-${seq}` so a listener can tell a restart from a gap
+        this.bootId = Date.now().toString(36);
+        this.eventSeq = 0;
+        this.eventLog = [];
+        this.eventClients = new Set();
+        setInterval(() => {
+            for (const client of this.eventClients) client.write(': keep-alive\n\n');
+        }, EVENT_HEARTBEAT_MS).unref();
+        
         this.setupRoutes();
         this.startServer();
     }
@@ -98,21 +112,86 @@ class MinecraftSSIIntegration {
         
         // Check verification status
         this.app.get('/status/:playerName', (req, res) => {
-            const { playerName } = req.params;
-            const session = this.verificationSessions.get(playerName);
+            res.json(this.statusFor(req.params.playerName));
+        });
+        
+        // Push channel for the Minecraft plugin
+        this.app.get('/events', (req, res) => this.handleEventStream(req, res));
+        
+        // Batch status check: { players: [...] } -> { statuses: [...] }, one round-trip for every pending player
+        this.app.post('/status', (req, res) => {
+            const { players } = req.body || {};
+            if (!Array.isArray(players)) {
+                return res.status(400).json({ error: 'players array required' });
+            }
+            if (players.length > MAX_STATUS_BATCH) {
+                return res.status(413).json({ error: `At most ${MAX_STATUS_BATCH} players per request` });
+            }
             
             res.json({
-                playerName,
-                verified: this.verifiedPlayers.has(playerName),
-                session: session ? {
-                    status: session.status,
-                    qrUrl: session.qrUrl,
-                    startTime: session.startTime
-                } : null
+                statuses: players
+                    .filter(playerName => typeof playerName === 'string')
+                    .map(playerName => this.statusFor(playerName))
             });
         });
     }
     
+    // Server-Sent Events stream; resumes after the id in Last-Event-ID when it is still buffered
+    handleEventStream(req, res) {
+        res.set({
+            'Content-Type': 'text/event-stream',
+            'Cache-Control': 'no-cache',
+            'Connection': 'keep-alive'
+        });
+        res.flushHeaders();
+        res.write('retry: 2000\n\n');
+        
+        const lastEventId = req.get('Last-Event-ID') || req.query.lastEventId;
+        if (lastEventId) {
+            const [bootId, seqText] = String(lastEventId).split('-');
+            const seq = Number(seqText);
+            const oldestSeq = this.eventLog.length ? this.eventLog[0].seq : this.eventSeq + 1;
+            
+            if (bootId === this.bootId && seq >= oldestSeq - 1 && seq <= this.eventSeq) {
+                for (const event of this.eventLog) {
+                    if (event.seq > seq) this.writeEvent(res, event);
+                }
+            } else {
+                // Restarted or too far behind: the listener has to re-check what it is waiting on
+                this.writeEvent(res, { id: `${this.bootId}-${this.eventSeq}`, type: 'reset', data: {} });
+            }
+        }
+        
+        this.eventClients.add(res);
+        req.on('close', () => this.eventClients.delete(res));
+    }
+    
+    publishEvent(type, data) {
+        const seq = ++this.eventSeq;
+        const event = { id: `${this.bootId}-${seq}`, seq, type, data };
+        this.eventLog.push(event);
+        if (this.eventLog.length > EVENT_BUFFER_SIZE) this.eventLog.shift();
+        
+        for (const client of this.eventClients) this.writeEvent(client, event);
+    }
+    
+    writeEvent(res, event) {
+        res.write(`id: ${event.id}\nevent: ${event.type}\ndata: ${JSON.stringify(event.data)}\n\n`);
+    }
+    
+    statusFor(playerName) {
+        const session = this.verificationSessions.get(playerName);
+        return {
+            playerName,
+            verified: this.verifiedPlayers.has(playerName),
+            session: session ? {
+                status: session.status,
+                qrUrl: session.qrUrl,
+                startTime: session.startTime
+            } : null
+        };
+    }
+    
     async startVerificationProcess(playerName) {
         console.log(`Starting verification for player: ${playerName}`);
         
@@ -205,6 +284,10 @@ class MinecraftSSIIntegration {
             if (!this.verifiedPlayers.has(session.playerName)) {
                 this.sendMinecraftMessage(session.playerName, 
                     '§cVerification timeout. Try /verify again.');
+                this.publishEvent('verification-expired', {
+                    playerName: session.playerName,
+                    sessionId: session.sessionId
+                });
                 this.verificationSessions.delete(session.sessionId);
                 this.verificationSessions.delete(session.playerName);
             }
@@ -283,6 +366,10 @@ class MinecraftSSIIntegration {
                     // Verification successful!
                     this.verifiedPlayers.add(session.playerName);
                     session.status = 'verified';
+                    this.publishEvent('verification-completed', {
+                        playerName: session.playerName,
+                        sessionId: session.sessionId
+                    });
                     
                     // Extract verified data
                     const verifiedData = this.extractVerifiedData(proofData);
@@ -304,6 +391,10 @@ class MinecraftSSIIntegration {
                     // Verification failed
                     this.sendMinecraftMessage(session.playerName, 
                         '§cIdentity verification failed. Check your credentials.');
+                    this.publishEvent('verification-failed', {
+                        playerName: session.playerName,
+                        sessionId: session.sessionId
+                    });
                 }
                 
                 // Cleanup session
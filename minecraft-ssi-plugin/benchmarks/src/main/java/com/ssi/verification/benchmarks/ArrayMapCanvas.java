@@ -0,0 +1,78 @@
+package com.ssi.verification.benchmarks;
+
+import org.bukkit.map.MapCanvas;
+import org.bukkit.map.MapCursorCollection;
+import org.bukkit.map.MapFont;
+import org.bukkit.map.MapView;
+
+import java.awt.Color;
+import java.awt.Image;
+
+/**
+ * Plain byte[] canvas so renderers can be measured without a server. setPixel does the same
+ * bounds check and array store as the CraftBukkit canvas.
+ */
+@SuppressWarnings("deprecation")
+final class ArrayMapCanvas implements MapCanvas {
+
+    final byte[] buffer = new byte[128 * 128];
+
+    @Override
+    public void setPixel(int x, int y, byte color) {
+        if (x < 0 || y < 0 || x >= 128 || y >= 128) return;
+        buffer[y * 128 + x] = color;
+    }
+
+    // Still abstract on MapCanvas, so the canvas has to implement it
+    @SuppressWarnings("removal")
+    @Override
+    public byte getPixel(int x, int y) {
+        return buffer[y * 128 + x];
+    }
+
+    // Still abstract on MapCanvas, so the canvas has to implement it
+    @SuppressWarnings("removal")
+    @Override
+    public byte getBasePixel(int x, int y) {
+        return 0;
+    }
+
+    @Override
+    public void setPixelColor(int x, int y, Color color) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Color getPixelColor(int x, int y) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Color getBasePixelColor(int x, int y) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MapView getMapView() {
+        return null;
+    }
+
+    @Override
+    public MapCursorCollection getCursors() {
+        return null;
+    }
+
+    @Override
+    public void setCursors(MapCursorCollection cursors) {
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void drawText(int x, int y, MapFont font, String text) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ssi.verification.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/** Agent payloads shaped like the ones the plugin receives. */
+final class Fixtures {
+
+    private static final String[] STATES = {"request-sent", "presentation-received", "done", "abandoned"};
+
+    private Fixtures() {
+    }
+
+    // Same shape as the verifier's out-of-band invitation URLs
+    static String invitationUrl(String id) {
+        String invitation = "{\"@type\":\"https://didcomm.org/out-of-band/1.1/invitation\",\"@id\":\"" + id
+            + "\",\"label\":\"Minecraft-Server\",\"handshake_protocols\":[\"https://didcomm.org/didexchange/1.0\"],"
+            + "\"services\":[{\"id\":\"#inline\",\"type\":\"did-communication\",\"recipientKeys\":"
+            + "[\"did:key:z6MkqRYqQiSgvZQdnBytw86Qbs2ZWUkGv22od935YF4s8M7V\"],\"serviceEndpoint\":\"http://localhost:8020\"}]}";
+        return "http://localhost:8020?oob=" + Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(invitation.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A /present-proof-2.0/records listing; connection ids are "conn-<i>" so callers can pick targets
+    static String proofRecords(int count) {
+        JsonArray results = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            results.add(proofRecord("conn-" + i, STATES[i % STATES.length]));
+        }
+        JsonObject body = new JsonObject();
+        body.add("results", results);
+        return body.toString();
+    }
+
+    static JsonObject proofRecord(String connectionId, String state) {
+        JsonObject record = new JsonObject();
+        record.addProperty("pres_ex_id", UUID.randomUUID().toString());
+        record.addProperty("connection_id", connectionId);
+        record.addProperty("thread_id", UUID.randomUUID().toString());
+        record.addProperty("role", "verifier");
+        record.addProperty("state", state);
+        record.addProperty("verified", "true");
+        record.addProperty("created_at", "2025-07-21T10:15:30.000000Z");
+        record.addProperty("updated_at", "2025-07-21T10:16:02.123456Z");
+
+        // Real records carry the full request and presentation, which dominates parse cost
+        JsonObject revealed = new JsonObject();
+        JsonObject department = new JsonObject();
+        department.addProperty("raw", "Computer Science");
+        department.addProperty("encoded", "68086943237164982734333428280784300550565381723532936263016368251445461241953");
+        revealed.add("department", department);
+        JsonObject requestedProof = new JsonObject();
+        requestedProof.add("revealed_attrs", revealed);
+        JsonObject indy = new JsonObject();
+        indy.add("requested_proof", requestedProof);
+        indy.addProperty("proof", "x".repeat(2048));
+        JsonObject pres = new JsonObject();
+        pres.add("indy", indy);
+        JsonObject byFormat = new JsonObject();
+        byFormat.add("pres", pres);
+        record.add("by_format", byFormat);
+        return record;
+    }
+}
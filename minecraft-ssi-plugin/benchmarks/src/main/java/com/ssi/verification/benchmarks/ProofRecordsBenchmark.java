@@ -0,0 +1,80 @@
+package com.ssi.verification.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ssi.verification.ProofExchangeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing large /present-proof-2.0/records responses: the per-player parse-and-scan the old
+ * monitorProofStatusByConnection did every poll, against one shared index refresh plus lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProofRecordsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int records;
+
+    @Param({"50"})
+    public int waitingPlayers;
+
+    private String body;
+    private String target;
+    private ProofExchangeIndex index;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.proofRecords(records);
+        target = "conn-" + (records - 1);
+
+        index = new ProofExchangeIndex();
+        for (int i = 0; i < waitingPlayers; i++) {
+            index.watch("conn-" + (records - 1 - i));
+        }
+        index.ingest(JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("results"));
+    }
+
+    // Cost of one player's poll in the old scheme; multiply by waiting players per interval
+    @Benchmark
+    public String parseAndScan() {
+        JsonObject recordsData = JsonParser.parseString(body).getAsJsonObject();
+        JsonArray results = recordsData.getAsJsonArray("results");
+        for (int i = 0; i < results.size(); i++) {
+            JsonObject record = results.get(i).getAsJsonObject();
+            if (record.has("connection_id") && target.equals(record.get("connection_id").getAsString())) {
+                return record.get("state").getAsString();
+            }
+        }
+        return null;
+    }
+
+    // Cost of the single shared refresh that serves every waiting player per interval
+    @Benchmark
+    public List<ProofExchangeIndex.Entry> sharedIndexRefresh() {
+        return index.ingest(JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("results"));
+    }
+
+    @Benchmark
+    public ProofExchangeIndex.Entry indexLookup() {
+        return index.lookup(target);
+    }
+}
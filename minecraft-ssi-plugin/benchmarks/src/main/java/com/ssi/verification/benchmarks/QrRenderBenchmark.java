@@ -0,0 +1,102 @@
+package com.ssi.verification.benchmarks;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.ssi.verification.QRCodeCache;
+import com.ssi.verification.QRMapRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QR encoding and the map render pass: the original BufferedImage/getRGB path from giveQRMap
+ * against the palette buffer drawn once by QRMapRenderer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QrRenderBenchmark {
+
+    private String invitationUrl;
+    private BufferedImage qrImage;
+    private byte[] qrPixels;
+    private QRCodeCache cache;
+    private QRMapRenderer drawnRenderer;
+    private ArrayMapCanvas canvas;
+
+    @Setup
+    public void setUp() throws WriterException {
+        invitationUrl = Fixtures.invitationUrl(UUID.randomUUID().toString());
+        qrImage = MatrixToImageWriter.toBufferedImage(
+            new QRCodeWriter().encode(invitationUrl, BarcodeFormat.QR_CODE, 128, 128));
+        qrPixels = QRCodeCache.encode(invitationUrl);
+
+        cache = new QRCodeCache(256);
+        cache.get(invitationUrl);
+
+        canvas = new ArrayMapCanvas();
+        drawnRenderer = new QRMapRenderer(qrPixels);
+        drawnRenderer.render(null, canvas, null);
+    }
+
+    @Benchmark
+    public BufferedImage encodeBufferedImage() throws WriterException {
+        return MatrixToImageWriter.toBufferedImage(
+            new QRCodeWriter().encode(invitationUrl, BarcodeFormat.QR_CODE, 128, 128));
+    }
+
+    @Benchmark
+    public byte[] encodePaletteBuffer() throws WriterException {
+        return QRCodeCache.encode(invitationUrl);
+    }
+
+    @Benchmark
+    public byte[] encodeCachedHit() throws WriterException {
+        return cache.get(invitationUrl);
+    }
+
+    // The original anonymous renderer, which ran this on every render pass for every viewer
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public ArrayMapCanvas renderGetRgbLoop() {
+        for (int x = 0; x < 128; x++) {
+            for (int y = 0; y < 128; y++) {
+                if (x < qrImage.getWidth() && y < qrImage.getHeight()) {
+                    int rgb = qrImage.getRGB(x, y);
+                    byte color = (rgb == -1) ? (byte) 0 : (byte) 119;
+                    canvas.setPixel(x, y, color);
+                }
+            }
+        }
+        return canvas;
+    }
+
+    @Benchmark
+    public ArrayMapCanvas renderPrecomputedFirstPass() {
+        new QRMapRenderer(qrPixels).render(null, canvas, null);
+        return canvas;
+    }
+
+    @Benchmark
+    public ArrayMapCanvas renderPrecomputedLaterPass() {
+        drawnRenderer.render(null, canvas, null);
+        return canvas;
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.ssi.verification.benchmarks;
+
+import com.google.gson.JsonObject;
+import com.google.zxing.WriterException;
+import com.ssi.verification.AgentClient;
+import com.ssi.verification.QRCodeCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole verification sessions against {@link StubAgent}: create invitation, encode its QR buffer,
+ * see the connection go active, send the proof request and read the record back. Sessions are
+ * launched as a concurrent burst so the client's dispatcher limits are part of what is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionThroughputBenchmark {
+
+    private static final int BURST = 50;
+
+    private StubAgent agent;
+    private AgentClient client;
+    private QRCodeCache qrCodeCache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        agent = new StubAgent();
+        client = new AgentClient(agent.url(), agent.url(), new AgentClient.Settings());
+        qrCodeCache = new QRCodeCache(256);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdown();
+        agent.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public int sessionBurst() {
+        CompletableFuture<?>[] sessions = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            sessions[i] = session("Player" + i);
+        }
+        CompletableFuture.allOf(sessions).join();
+        return sessions.length;
+    }
+
+    private CompletableFuture<JsonObject> session(String playerName) {
+        return client.createInvitation("Minecraft-Server", playerName)
+            .thenCompose(invitation -> {
+                String connectionId = invitation.get("connection_id").getAsString();
+                try {
+                    qrCodeCache.get(invitation.get("invitation_url").getAsString());
+                } catch (WriterException e) {
+                    throw new CompletionException(e);
+                }
+                return client.getConnection(connectionId)
+                    .thenCompose(connection -> client.sendProofRequest(connectionId, "Minecraft verification"));
+            })
+            .thenCompose(proof -> client.getProofRecord(proof.get("pres_ex_id").getAsString()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ssi.verification.benchmarks;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loopback stand-in for the verifier and ACA-Py admin endpoints a session touches. Every
+ * connection is reported active and every proof record done, so a benchmark measures the
+ * plugin's own request handling rather than agent behaviour.
+ */
+final class StubAgent implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    StubAgent() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(16, runnable -> {
+            Thread thread = new Thread(runnable, "Stub-Agent");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+
+        server.createContext("/v2/create-invitation", exchange -> {
+            String connectionId = UUID.randomUUID().toString();
+            JsonObject body = new JsonObject();
+            body.addProperty("connection_id", connectionId);
+            body.addProperty("invitation_url", Fixtures.invitationUrl(connectionId));
+            respond(exchange, body.toString());
+        });
+        server.createContext("/v2/connections", exchange -> {
+            JsonObject body = new JsonObject();
+            body.addProperty("state", "active");
+            body.addProperty("rfc23_state", "completed");
+            respond(exchange, body.toString());
+        });
+        server.createContext("/v2/send-proof-request", exchange -> {
+            JsonObject body = new JsonObject();
+            body.addProperty("pres_ex_id", UUID.randomUUID().toString());
+            body.addProperty("state", "request-sent");
+            respond(exchange, body.toString());
+        });
+        server.createContext("/present-proof-2.0/records/", exchange ->
+            respond(exchange, Fixtures.proofRecord("conn", "done").toString()));
+
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
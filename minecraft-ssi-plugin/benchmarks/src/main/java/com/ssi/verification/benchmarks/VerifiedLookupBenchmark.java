@@ -0,0 +1,104 @@
+package com.ssi.verification.benchmarks;
+
+import com.ssi.verification.VerifiedPlayerStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Verified-player lookups under contention: seven readers (joins, /verify, /ssiverify) against one
+ * writer recording verifications, for the old name-keyed map and the persistent store.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifiedLookupBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    // Writes are rare next to reads; burn a little CPU so the writer does not flood the log
+    private static final long WRITE_SPACING_TOKENS = 10_000;
+
+    private final String[] names = new String[PLAYERS];
+    private final UUID[] ids = new UUID[PLAYERS];
+    private ConcurrentHashMap<String, Boolean> legacy;
+    private VerifiedPlayerStore store;
+    private File storeFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        legacy = new ConcurrentHashMap<>();
+        storeFile = Files.createTempFile("verified-players", ".log").toFile();
+        store = new VerifiedPlayerStore(storeFile, 1000, 256, Logger.getLogger("benchmark"));
+        store.load();
+
+        for (int i = 0; i < PLAYERS; i++) {
+            names[i] = "Player" + i;
+            ids[i] = UUID.randomUUID();
+            if (i % 2 == 0) {
+                legacy.put(names[i], true);
+                store.markVerified(ids[i], names[i], "conn-" + i, "pres-" + i);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+        storeFile.delete();
+    }
+
+    @Benchmark
+    @Group("legacyMap")
+    @GroupThreads(7)
+    public boolean legacyRead() {
+        return legacy.getOrDefault(names[ThreadLocalRandom.current().nextInt(PLAYERS)], false);
+    }
+
+    @Benchmark
+    @Group("legacyMap")
+    @GroupThreads(1)
+    public void legacyWrite() {
+        Blackhole.consumeCPU(WRITE_SPACING_TOKENS);
+        legacy.put(names[ThreadLocalRandom.current().nextInt(PLAYERS)], true);
+    }
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(7)
+    public boolean storeRead() {
+        return store.isVerified(ids[ThreadLocalRandom.current().nextInt(PLAYERS)]);
+    }
+
+    @Benchmark
+    @Group("store")
+    @GroupThreads(1)
+    public void storeWrite() {
+        Blackhole.consumeCPU(WRITE_SPACING_TOKENS);
+        int i = ThreadLocalRandom.current().nextInt(PLAYERS);
+        store.markVerified(ids[i], names[i], "conn-" + i, "pres-" + i);
+    }
+}
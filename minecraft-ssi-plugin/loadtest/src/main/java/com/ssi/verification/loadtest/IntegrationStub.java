@@ -0,0 +1,195 @@
+package com.ssi.verification.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the status API of {@code minecraft-ssi-integration.js} ({@code GET /status/{player}}
+ * and the batched {@code POST /status}), counting every request and how many are in flight, so
+ * tests can check what SSIVerificationPlugin's monitors leave running.
+ */
+public class IntegrationStub implements AutoCloseable {
+
+    public static class Settings {
+        public String host = "127.0.0.1";
+        public int port = 0;
+        public int handlerThreads = 64;
+        public long latencyMillis = 0;
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final Set<String> verified = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong playersQueried = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ConcurrentHashMap<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>();
+
+    public IntegrationStub(Settings settings) throws IOException {
+        this.settings = settings;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        handlers = Executors.newFixedThreadPool(settings.handlerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "Integration-Stub-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = HttpServer.create(new InetSocketAddress(settings.host, settings.port), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+    }
+
+    public IntegrationStub start() {
+        server.start();
+        return this;
+    }
+
+    public String url() {
+        return "http://" + settings.host + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    /** The player's wallet presented a valid proof; status lookups report them verified from now on. */
+    public void markVerified(String playerName) {
+        verified.add(playerName);
+    }
+
+    // --- counters ---
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long playersQueried() {
+        return playersQueried.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public Map<String, Long> requestsByEndpoint() {
+        Map<String, Long> snapshot = new HashMap<>();
+        requestsByEndpoint.forEach((endpoint, count) -> snapshot.put(endpoint, count.get()));
+        return snapshot;
+    }
+
+    // --- HTTP ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getRawPath();
+            simulateLatency();
+
+            if ("GET".equals(method) && path.startsWith("/status/")) {
+                count("GET /status/{player}");
+                playersQueried.incrementAndGet();
+                respond(exchange, 200, status(URLDecoder.decode(path.substring("/status/".length()), StandardCharsets.UTF_8)));
+            } else if ("POST".equals(method) && "/status".equals(path)) {
+                count("POST /status");
+                JsonElement players = readBody(exchange).get("players");
+                if (players == null || !players.isJsonArray()) {
+                    respond(exchange, 400, error("players array required"));
+                    return;
+                }
+                JsonArray statuses = new JsonArray();
+                for (JsonElement player : players.getAsJsonArray()) {
+                    playersQueried.incrementAndGet();
+                    statuses.add(status(player.getAsString()));
+                }
+                JsonObject response = new JsonObject();
+                response.add("statuses", statuses);
+                respond(exchange, 200, response);
+            } else {
+                count(method + " other");
+                respond(exchange, 404, error("Not found: " + method + " " + path));
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private JsonObject status(String playerName) {
+        JsonObject status = new JsonObject();
+        status.addProperty("playerName", playerName);
+        status.addProperty("verified", verified.contains(playerName));
+        status.add("session", null);
+        return status;
+    }
+
+    private void count(String endpoint) {
+        requestsByEndpoint.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void simulateLatency() {
+        if (settings.latencyMillis <= 0) return;
+        try {
+            Thread.sleep(settings.latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = JsonParser.parseReader(reader);
+            return body.isJsonObject() ? body.getAsJsonObject() : new JsonObject();
+        } catch (RuntimeException e) {
+            return new JsonObject();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        return error;
+    }
+}
@@ -0,0 +1,352 @@
+package com.ssi.verification.loadtest;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.ssi.verification.AgentClient;
+import com.ssi.verification.RestrictionCache;
+import com.ssi.verification.WebhookServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Drives thousands of simulated wallets through the plugin's verification flow against
+ * {@link MockAgent}. The server side reuses the plugin's {@link AgentClient}, {@link WebhookServer}
+ * and {@link RestrictionCache}, so what is measured is the same client stack the plugin runs.
+ *
+ * <pre>
+ * java -jar target/loadtest.jar --wallets 5000 --arrival-rate 250 --mode webhook --latency-ms 20
+ * </pre>
+ *
+ * Reports verification throughput and time-to-verified percentiles (from /verify to the verified
+ * proof state being observed); {@code --report <file>} also writes them as JSON.
+ */
+public class LoadDriver {
+
+    private static final Logger LOGGER = Logger.getLogger("LoadDriver");
+
+    private enum Outcome { VERIFIED, REJECTED, FAILED, TIMED_OUT }
+
+    private static final class Session {
+        final String player;
+        final long startedAt = System.nanoTime();
+        volatile String connectionId;
+        volatile String proofExchangeId;
+        final AtomicBoolean connected = new AtomicBoolean();
+        final AtomicBoolean finished = new AtomicBoolean();
+
+        Session(String player) {
+            this.player = player;
+        }
+    }
+
+    private final Map<String, String> options;
+    private final int wallets;
+    private final boolean webhooks;
+    private final boolean viaAcapy;
+    private final long scanDelayMillis;
+    private final long pollIntervalMillis;
+    private final long timeoutMillis;
+
+    private final ConcurrentHashMap<String, Session> sessionsByConnection = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Session> sessionsByProofExchange = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> timesToVerified = new ConcurrentLinkedQueue<>();
+    private final Map<Outcome, AtomicLong> outcomes = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private MockAgent agent;
+    private AgentClient client;
+    private RestrictionCache restrictionCache;
+    private CountDownLatch remaining;
+
+    LoadDriver(Map<String, String> options) {
+        this.options = options;
+        wallets = intOption("wallets", 2000);
+        webhooks = !"poll".equalsIgnoreCase(options.getOrDefault("mode", "webhook"));
+        viaAcapy = "acapy".equalsIgnoreCase(options.getOrDefault("proof-via", "verifier"));
+        scanDelayMillis = longOption("scan-delay-ms", 3000);
+        pollIntervalMillis = longOption("poll-interval-ms", 1000);
+        timeoutMillis = TimeUnit.SECONDS.toMillis(longOption("timeout-s", 180));
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+        scheduler = Executors.newScheduledThreadPool(intOption("driver-threads", 4), runnable -> {
+            Thread thread = new Thread(runnable, "Load-Driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) continue;
+            String key = args[i].substring(2);
+            options.put(key, i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true");
+        }
+        new LoadDriver(options).run();
+    }
+
+    void run() throws Exception {
+        WebhookServer webhookServer = null;
+        MockAgent.Settings agentSettings = new MockAgent.Settings();
+        agentSettings.latencyMillis = longOption("latency-ms", 10);
+        agentSettings.latencyJitterMillis = longOption("jitter-ms", 20);
+        agentSettings.errorRate = doubleOption("error-rate", 0);
+        agentSettings.abandonRate = doubleOption("abandon-rate", 0);
+        agentSettings.unverifiedRate = doubleOption("unverified-rate", 0);
+        agentSettings.handlerThreads = intOption("agent-threads", 256);
+
+        if (webhooks) {
+            int port = freePort();
+            webhookServer = new WebhookServer("127.0.0.1", port, "/webhooks", "", this::onEvent, LOGGER);
+            webhookServer.start();
+            agentSettings.webhookUrl = "http://127.0.0.1:" + port + "/webhooks";
+        }
+        agent = new MockAgent(agentSettings).start();
+
+        AgentClient.Settings httpSettings = new AgentClient.Settings();
+        httpSettings.maxRequests = intOption("max-requests", httpSettings.maxRequests);
+        httpSettings.maxRequestsPerHost = intOption("max-requests-per-host", httpSettings.maxRequestsPerHost);
+        client = new AgentClient(agent.url(), agent.url(), httpSettings);
+        restrictionCache = new RestrictionCache(this::loadRestrictions, LoadDriver::presentationRequest,
+            TimeUnit.MINUTES.toMillis(5), TimeUnit.HOURS.toMillis(1));
+
+        System.out.printf("Driving %d wallets against %s (%s, proof requests via %s)%n",
+            wallets, agent.url(), webhooks ? "webhooks" : "polling", viaAcapy ? "acapy" : "verifier");
+
+        remaining = new CountDownLatch(wallets);
+        double arrivalRate = doubleOption("arrival-rate", 200);
+        long started = System.nanoTime();
+        for (int i = 0; i < wallets; i++) {
+            Session session = new Session("Player" + i);
+            long delayMicros = arrivalRate > 0 ? (long) (i * 1_000_000 / arrivalRate) : 0;
+            scheduler.schedule(() -> verify(session), delayMicros, TimeUnit.MICROSECONDS);
+        }
+
+        long deadline = TimeUnit.SECONDS.toMillis(longOption("run-limit-s", 900));
+        if (!remaining.await(deadline, TimeUnit.MILLISECONDS)) {
+            System.out.println("Run limit reached with " + remaining.getCount() + " sessions still open");
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        report(elapsedSeconds);
+
+        scheduler.shutdownNow();
+        client.shutdown();
+        if (webhookServer != null) webhookServer.stop();
+        agent.close();
+    }
+
+    // --- plugin side, mirroring SimpleSSIPlugin ---
+
+    private void verify(Session session) {
+        client.createInvitation("Minecraft-Server", session.player).whenComplete((invitation, error) -> {
+            if (error != null || !invitation.has("connection_id")) {
+                finish(session, Outcome.FAILED);
+                return;
+            }
+            session.connectionId = invitation.get("connection_id").getAsString();
+            sessionsByConnection.put(session.connectionId, session);
+
+            // The wallet scans the QR code after some think time
+            long thinkTime = scanDelayMillis > 0 ? ThreadLocalRandom.current().nextLong(scanDelayMillis + 1) : 0;
+            scheduler.schedule(() -> agent.scan(session.connectionId), thinkTime, TimeUnit.MILLISECONDS);
+            scheduler.schedule(() -> finish(session, Outcome.TIMED_OUT), timeoutMillis, TimeUnit.MILLISECONDS);
+            if (!webhooks) schedulePoll(session);
+        });
+    }
+
+    private void onEvent(String topic, JsonObject payload) {
+        if ("connections".equals(topic)) {
+            Session session = sessionFor(stringField(payload, "connection_id"));
+            if (session != null && "active".equals(stringField(payload, "state"))) {
+                onConnectionActive(session);
+            }
+        } else if ("present_proof_v2_0".equals(topic)) {
+            Session session = sessionFor(stringField(payload, "connection_id"));
+            if (session != null) onProofState(session, stringField(payload, "state"));
+        }
+    }
+
+    private void schedulePoll(Session session) {
+        scheduler.schedule(() -> {
+            if (session.finished.get()) return;
+            CompletableFuture<JsonObject> check = session.proofExchangeId != null
+                ? client.getProofRecord(session.proofExchangeId)
+                : session.connected.get() ? null : client.getConnection(session.connectionId);
+            if (check == null) {
+                schedulePoll(session);
+                return;
+            }
+            check.whenComplete((json, error) -> {
+                if (error == null) {
+                    if (json.has("pres_ex_id")) {
+                        onProofState(session, stringField(json, "state"));
+                    } else if ("active".equals(stringField(json, "state"))) {
+                        onConnectionActive(session);
+                    }
+                }
+                schedulePoll(session);
+            });
+        }, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void onConnectionActive(Session session) {
+        if (!session.connected.compareAndSet(false, true)) return;
+
+        CompletableFuture<JsonObject> sent = viaAcapy
+            ? restrictionCache.get().thenCompose(snapshot ->
+                client.sendPresentationRequest(session.connectionId, snapshot.presentationRequest()))
+            : client.sendProofRequest(session.connectionId, "Minecraft Server Verification");
+
+        sent.whenComplete((response, error) -> {
+            String proofExchangeId = error == null ? stringField(response, "pres_ex_id") : null;
+            if (proofExchangeId == null) {
+                finish(session, Outcome.FAILED);
+                return;
+            }
+            session.proofExchangeId = proofExchangeId;
+            sessionsByProofExchange.put(proofExchangeId, session);
+        });
+    }
+
+    private void onProofState(Session session, String state) {
+        if ("presentation-received".equals(state) || "done".equals(state)) {
+            if (finish(session, Outcome.VERIFIED)) {
+                timesToVerified.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - session.startedAt));
+            }
+        } else if ("abandoned".equals(state) || "request-rejected".equals(state)) {
+            finish(session, Outcome.REJECTED);
+        }
+    }
+
+    private boolean finish(Session session, Outcome outcome) {
+        if (!session.finished.compareAndSet(false, true)) return false;
+        outcomes.get(outcome).incrementAndGet();
+        if (session.connectionId != null) sessionsByConnection.remove(session.connectionId, session);
+        if (session.proofExchangeId != null) sessionsByProofExchange.remove(session.proofExchangeId, session);
+        remaining.countDown();
+        return true;
+    }
+
+    private Session sessionFor(String connectionId) {
+        return connectionId != null ? sessionsByConnection.get(connectionId) : null;
+    }
+
+    private CompletableFuture<JsonArray> loadRestrictions() {
+        return client.getCreatedCredentialDefinitions().thenApply(response -> {
+            JsonArray restrictions = new JsonArray();
+            for (JsonElement id : response.getAsJsonArray("credential_definition_ids")) {
+                JsonObject restriction = new JsonObject();
+                restriction.addProperty("cred_def_id", id.getAsString());
+                restrictions.add(restriction);
+            }
+            return restrictions;
+        });
+    }
+
+    private static String presentationRequest(JsonArray restrictions) {
+        JsonObject attribute = new JsonObject();
+        attribute.addProperty("name", "department");
+        attribute.add("restrictions", restrictions);
+        JsonObject attributes = new JsonObject();
+        attributes.add("department", attribute);
+        JsonObject indy = new JsonObject();
+        indy.addProperty("name", "Minecraft Server Verification");
+        indy.addProperty("version", "1.0");
+        indy.add("requested_attributes", attributes);
+        indy.add("requested_predicates", new JsonObject());
+        JsonObject request = new JsonObject();
+        request.add("indy", indy);
+        return request.toString();
+    }
+
+    // --- reporting ---
+
+    private void report(double elapsedSeconds) throws IOException {
+        long[] latencies = timesToVerified.stream().mapToLong(Long::longValue).sorted().toArray();
+        long verified = outcomes.get(Outcome.VERIFIED).get();
+
+        JsonObject report = new JsonObject();
+        report.addProperty("wallets", wallets);
+        report.addProperty("mode", webhooks ? "webhook" : "poll");
+        report.addProperty("proofVia", viaAcapy ? "acapy" : "verifier");
+        report.addProperty("elapsedSeconds", elapsedSeconds);
+        for (Outcome outcome : Outcome.values()) {
+            report.addProperty(outcome.name().toLowerCase(), outcomes.get(outcome).get());
+        }
+        report.addProperty("verifiedPerSecond", verified / elapsedSeconds);
+        report.addProperty("timeToVerifiedP50Ms", percentile(latencies, 0.50));
+        report.addProperty("timeToVerifiedP90Ms", percentile(latencies, 0.90));
+        report.addProperty("timeToVerifiedP99Ms", percentile(latencies, 0.99));
+        report.addProperty("timeToVerifiedMaxMs", latencies.length > 0 ? latencies[latencies.length - 1] : 0);
+        report.addProperty("agentRequests", agent.requests());
+        report.addProperty("agentInjectedErrors", agent.injectedErrors());
+        report.addProperty("agentMaxInFlight", agent.maxInFlight());
+        report.addProperty("webhooksSent", agent.webhooksSent());
+        report.addProperty("webhooksFailed", agent.webhooksFailed());
+        JsonObject endpoints = new JsonObject();
+        agent.requestsByEndpoint().entrySet().stream().sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> endpoints.addProperty(entry.getKey(), entry.getValue()));
+        report.add("agentRequestsByEndpoint", endpoints);
+
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(report);
+        System.out.println(json);
+
+        String reportFile = options.get("report");
+        if (reportFile != null) {
+            Files.writeString(Path.of(reportFile), json, StandardCharsets.UTF_8);
+            System.out.println("Report written to " + reportFile);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    // --- helpers ---
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String stringField(JsonObject json, String key) {
+        JsonElement value = json != null ? json.get(key) : null;
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    private int intOption(String key, int fallback) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : fallback;
+    }
+
+    private long longOption(String key, long fallback) {
+        return options.containsKey(key) ? Long.parseLong(options.get(key)) : fallback;
+    }
+
+    private double doubleOption(String key, double fallback) {
+        return options.containsKey(key) ? Double.parseDouble(options.get(key)) : fallback;
+    }
+}
@@ -0,0 +1,505 @@
+package com.ssi.verification.loadtest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for ACA-Py's admin API and the ssi-tutorial verifier, so verification
+ * throughput can be measured without a wallet. Both APIs are served from one port; point
+ * {@code acapy.admin-url} and {@code verifier.url} (or the Node bridge's ACAPY_ADMIN_URL and
+ * VERIFIER_API_URL) at {@link #url()}.
+ *
+ * <p>Connections stay in {@code invitation} until a simulated wallet calls {@link #scan(String)};
+ * after that both connections and proof exchanges walk through their scripted states on a timer,
+ * emitting ACA-Py style webhooks for each step when a webhook URL is configured.
+ */
+public class MockAgent implements AutoCloseable {
+
+    /** One scripted state change: the record moves to {@code state} {@code delayMillis} after the previous step. */
+    public record Step(String state, long delayMillis) { }
+
+    public static class Settings {
+        public String host = "127.0.0.1";
+        public int port = 0;
+        public int handlerThreads = 256;
+
+        /** Added to every response; jitter is uniform in [0, latencyJitterMillis]. */
+        public long latencyMillis = 0;
+        public long latencyJitterMillis = 0;
+        /** Fraction of requests answered with HTTP 500 instead of being processed. */
+        public double errorRate = 0;
+
+        public List<Step> connectionScript = List.of(
+            new Step("request", 50), new Step("response", 50), new Step("active", 50));
+        public List<Step> proofScript = List.of(
+            new Step("request-received", 100), new Step("presentation-sent", 500),
+            new Step("presentation-received", 50), new Step("done", 50));
+        /** Fraction of proof exchanges the wallet abandons instead of presenting. */
+        public double abandonRate = 0;
+        /** Fraction of completed presentations that fail verification. */
+        public double unverifiedRate = 0;
+
+        /** ACA-Py --webhook-url equivalent; null disables webhooks. */
+        public String webhookUrl;
+        public String webhookApiKey;
+
+        public String credentialDefinitionId = "BzCbsNYhMrjHiqZDTUASHg:3:CL:12:default";
+    }
+
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    private static final class Connection {
+        final String id = UUID.randomUUID().toString();
+        final String alias;
+        final String createdAt = now();
+        volatile String state = "invitation";
+        volatile String updatedAt = createdAt;
+
+        Connection(String alias) {
+            this.alias = alias;
+        }
+    }
+
+    private static final class ProofExchange {
+        final String id = UUID.randomUUID().toString();
+        final String threadId = UUID.randomUUID().toString();
+        final String connectionId;
+        final String createdAt = now();
+        volatile String state = "request-sent";
+        volatile String verified;
+        volatile String updatedAt = createdAt;
+
+        ProofExchange(String connectionId) {
+            this.connectionId = connectionId;
+        }
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService timer;
+    private final HttpClient webhookClient;
+
+    private final ConcurrentHashMap<String, Connection> connections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ProofExchange> proofs = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong webhooksSent = new AtomicLong();
+    private final AtomicLong webhooksFailed = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ConcurrentHashMap<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>();
+
+    public MockAgent(Settings settings) throws IOException {
+        this.settings = settings;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        handlers = Executors.newFixedThreadPool(settings.handlerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "Mock-Agent-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Mock-Agent-Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        webhookClient = HttpClient.newBuilder().executor(handlers).build();
+
+        server = HttpServer.create(new InetSocketAddress(settings.host, settings.port), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+    }
+
+    public MockAgent start() {
+        server.start();
+        return this;
+    }
+
+    public String url() {
+        return "http://" + settings.host + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        timer.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    // --- wallet side ---
+
+    /** The wallet scanned the QR code: starts the connection script. Returns false for unknown ids. */
+    public boolean scan(String connectionId) {
+        Connection connection = connections.get(connectionId);
+        if (connection == null || !"invitation".equals(connection.state)) return false;
+        runScript(settings.connectionScript, 0, state -> {
+            connection.state = state;
+            connection.updatedAt = now();
+            emit("connections", connectionJson(connection));
+        });
+        return true;
+    }
+
+    // --- counters ---
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long webhooksSent() {
+        return webhooksSent.get();
+    }
+
+    public long webhooksFailed() {
+        return webhooksFailed.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public Map<String, Long> requestsByEndpoint() {
+        Map<String, Long> snapshot = new HashMap<>();
+        requestsByEndpoint.forEach((endpoint, count) -> snapshot.put(endpoint, count.get()));
+        return snapshot;
+    }
+
+    // --- HTTP ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            JsonObject body = "POST".equals(method) ? readBody(exchange) : new JsonObject();
+
+            simulateLatency();
+            if (settings.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 500, error("Injected failure"));
+                return;
+            }
+
+            JsonObject response = route(method, path, query, body);
+            if (response == null) {
+                respond(exchange, 404, error("Not found: " + method + " " + path));
+            } else {
+                respond(exchange, 200, response);
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private JsonObject route(String method, String path, Map<String, String> query, JsonObject body) {
+        String[] parts = path.replaceAll("^/+|/+$", "").split("/");
+        requestsByEndpoint.computeIfAbsent(endpointOf(method, path), key -> new AtomicLong()).incrementAndGet();
+
+        switch (method + " " + path.replaceAll("/+$", "")) {
+            // ssi-tutorial verifier
+            case "POST /v2/create-invitation", "POST /out-of-band/create-invitation" -> {
+                return createInvitation(stringField(body, "alias"));
+            }
+            case "GET /v2/connections" -> {
+                Connection connection = connections.get(query.getOrDefault("connectionId", ""));
+                return connection != null ? connectionJson(connection) : null;
+            }
+            case "POST /v2/send-proof-request" -> {
+                return sendProofRequest(stringField(body, "connectionId"));
+            }
+            // ACA-Py admin
+            case "GET /connections" -> {
+                return listConnections(query);
+            }
+            case "POST /present-proof-2.0/send-request" -> {
+                return sendProofRequest(stringField(body, "connection_id"));
+            }
+            case "GET /present-proof-2.0/records" -> {
+                return listProofRecords(query);
+            }
+            case "GET /credential-definitions/created" -> {
+                JsonObject created = new JsonObject();
+                JsonArray ids = new JsonArray();
+                ids.add(settings.credentialDefinitionId);
+                created.add("credential_definition_ids", ids);
+                return created;
+            }
+            default -> { }
+        }
+
+        if (path.startsWith("/connections/") && parts.length == 2) {
+            Connection connection = "DELETE".equals(method) ? connections.remove(parts[1]) : connections.get(parts[1]);
+            return connection == null ? null : "DELETE".equals(method) ? new JsonObject() : connectionJson(connection);
+        }
+        if (path.startsWith("/present-proof-2.0/records/") && parts.length == 3 && "GET".equals(method)) {
+            ProofExchange proof = proofs.get(parts[2]);
+            return proof != null ? proofJson(proof) : null;
+        }
+        return null;
+    }
+
+    private JsonObject createInvitation(String alias) {
+        Connection connection = new Connection(alias);
+        connections.put(connection.id, connection);
+
+        JsonObject invitation = new JsonObject();
+        invitation.addProperty("@type", "https://didcomm.org/out-of-band/1.1/invitation");
+        invitation.addProperty("@id", UUID.randomUUID().toString());
+        invitation.addProperty("label", "Mock-Agent");
+
+        String invitationUrl = url() + "?oob=" + Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(invitation.toString().getBytes(StandardCharsets.UTF_8));
+
+        JsonObject response = new JsonObject();
+        response.addProperty("connection_id", connection.id);
+        response.addProperty("invi_msg_id", invitation.get("@id").getAsString());
+        response.addProperty("invitation_url", invitationUrl);
+        response.add("invitation", invitation);
+        return response;
+    }
+
+    private JsonObject sendProofRequest(String connectionId) {
+        Connection connection = connectionId != null ? connections.get(connectionId) : null;
+        if (connection == null || !"active".equals(connection.state)) {
+            throw new IllegalStateException("Connection not ready: " + connectionId);
+        }
+        ProofExchange proof = new ProofExchange(connectionId);
+        proofs.put(proof.id, proof);
+        emit("present_proof_v2_0", proofJson(proof));
+
+        List<Step> script = settings.proofScript;
+        if (settings.abandonRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.abandonRate) {
+            script = List.of(new Step("abandoned", script.isEmpty() ? 0 : script.get(0).delayMillis()));
+        }
+        boolean verified = ThreadLocalRandom.current().nextDouble() >= settings.unverifiedRate;
+        runScript(script, 0, state -> {
+            if ("done".equals(state)) proof.verified = verified ? "true" : "false";
+            proof.state = state;
+            proof.updatedAt = now();
+            emit("present_proof_v2_0", proofJson(proof));
+        });
+        return proofJson(proof);
+    }
+
+    private JsonObject listConnections(Map<String, String> query) {
+        String state = query.get("state");
+        String alias = query.get("alias");
+        JsonArray results = new JsonArray();
+        for (Connection connection : connections.values()) {
+            if (state != null && !state.equals(connection.state)) continue;
+            if (alias != null && !alias.equals(connection.alias)) continue;
+            results.add(connectionJson(connection));
+        }
+        JsonObject response = new JsonObject();
+        response.add("results", results);
+        return response;
+    }
+
+    private JsonObject listProofRecords(Map<String, String> query) {
+        String connectionId = query.get("connection_id");
+        String state = query.get("state");
+        String role = query.get("role");
+        JsonArray results = new JsonArray();
+        for (ProofExchange proof : proofs.values()) {
+            if (connectionId != null && !connectionId.equals(proof.connectionId)) continue;
+            if (state != null && !state.equals(proof.state)) continue;
+            if (role != null && !"verifier".equals(role)) continue;
+            results.add(proofJson(proof));
+        }
+        JsonObject response = new JsonObject();
+        response.add("results", results);
+        return response;
+    }
+
+    // --- scripting and webhooks ---
+
+    private void runScript(List<Step> script, int index, Consumer<String> apply) {
+        if (index >= script.size()) return;
+        Step step = script.get(index);
+        timer.schedule(() -> {
+            apply.accept(step.state());
+            runScript(script, index + 1, apply);
+        }, step.delayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void emit(String topic, JsonObject payload) {
+        if (settings.webhookUrl == null) return;
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(settings.webhookUrl + "/topic/" + topic + "/"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(payload.toString()));
+        if (settings.webhookApiKey != null && !settings.webhookApiKey.isEmpty()) {
+            request.header("x-api-key", settings.webhookApiKey);
+        }
+        webhookClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                if (error == null && response.statusCode() / 100 == 2) {
+                    webhooksSent.incrementAndGet();
+                } else {
+                    webhooksFailed.incrementAndGet();
+                }
+            });
+    }
+
+    private JsonObject connectionJson(Connection connection) {
+        JsonObject json = new JsonObject();
+        json.addProperty("connection_id", connection.id);
+        json.addProperty("state", connection.state);
+        json.addProperty("rfc23_state", rfc23State(connection.state));
+        json.addProperty("alias", connection.alias);
+        json.addProperty("their_role", "invitee");
+        json.addProperty("created_at", connection.createdAt);
+        json.addProperty("updated_at", connection.updatedAt);
+        return json;
+    }
+
+    private JsonObject proofJson(ProofExchange proof) {
+        JsonObject json = new JsonObject();
+        json.addProperty("pres_ex_id", proof.id);
+        json.addProperty("connection_id", proof.connectionId);
+        json.addProperty("thread_id", proof.threadId);
+        json.addProperty("role", "verifier");
+        json.addProperty("state", proof.state);
+        if (proof.verified != null) json.addProperty("verified", proof.verified);
+        json.addProperty("created_at", proof.createdAt);
+        json.addProperty("updated_at", proof.updatedAt);
+
+        if ("done".equals(proof.state) || "presentation-received".equals(proof.state)) {
+            JsonObject department = new JsonObject();
+            department.addProperty("raw", "Computer Science");
+            JsonObject revealed = new JsonObject();
+            revealed.add("department", department);
+            JsonObject requestedProof = new JsonObject();
+            requestedProof.add("revealed_attrs", revealed);
+            JsonObject indy = new JsonObject();
+            indy.add("requested_proof", requestedProof);
+            JsonObject pres = new JsonObject();
+            pres.add("indy", indy);
+            JsonObject byFormat = new JsonObject();
+            byFormat.add("pres", pres);
+            json.add("by_format", byFormat);
+        }
+        return json;
+    }
+
+    // Record ids are folded out of the path so per-endpoint counts stay readable
+    private static String endpointOf(String method, String path) {
+        if (path.startsWith("/connections/")) return method + " /connections/{id}";
+        if (path.startsWith("/present-proof-2.0/records/")) return method + " /present-proof-2.0/records/{id}";
+        return method + " " + path;
+    }
+
+    private static String rfc23State(String state) {
+        return switch (state) {
+            case "invitation" -> "invitation-sent";
+            case "request" -> "request-received";
+            case "response" -> "response-sent";
+            case "active" -> "completed";
+            default -> state;
+        };
+    }
+
+    // --- helpers ---
+
+    private void simulateLatency() {
+        long delay = settings.latencyMillis;
+        if (settings.latencyJitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(settings.latencyJitterMillis + 1);
+        }
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = JsonParser.parseReader(reader);
+            return body.isJsonObject() ? body.getAsJsonObject() : new JsonObject();
+        } catch (RuntimeException e) {
+            return new JsonObject();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonObject body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String stringField(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", message);
+        return json;
+    }
+
+    private static String now() {
+        return TIMESTAMP.format(Instant.now());
+    }
+}
@@ -0,0 +1,221 @@
+package com.ssi.verification.loadtest;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.ssi.verification.SSIVerificationPlugin.IntegrationCodec;
+import com.ssi.verification.SSIVerificationPlugin.SessionStore;
+import com.ssi.verification.SSIVerificationPlugin.StatusBatcher;
+import com.ssi.verification.SSIVerificationPlugin.StatusMonitor;
+import com.ssi.verification.SSIVerificationPlugin.VerificationSession;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Regression check for SSIVerificationPlugin's status monitors: every session must stop polling
+ * once it ends, whether the player verified, quit, timed out or the plugin was disabled. Runs the
+ * plugin's own {@link SessionStore}, {@link StatusMonitor} and {@link StatusBatcher} against
+ * {@link IntegrationStub}, with a scheduled executor standing in for the Bukkit scheduler, then
+ * checks that the stub sees no requests in flight and no new ones.
+ *
+ * <pre>
+ * java -cp target/loadtest.jar com.ssi.verification.loadtest.MonitorLifecycleCheck --players 2000
+ * </pre>
+ *
+ * Exits with status 1 if anything is still polling.
+ */
+public class MonitorLifecycleCheck {
+
+    private enum Fate { VERIFY, QUIT, IDLE }
+
+    private final Map<String, String> options;
+    private final int players;
+    private final long intervalMillis;
+    private final int maxAttempts;
+    private final long settleMillis;
+
+    MonitorLifecycleCheck(Map<String, String> options) {
+        this.options = options;
+        players = intOption("players", 1000);
+        // The plugin polls every 3 s; scaled down so a run takes seconds
+        intervalMillis = longOption("interval-ms", 50);
+        maxAttempts = intOption("max-attempts", 40);
+        settleMillis = longOption("settle-ms", Math.max(500, intervalMillis * 10));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) continue;
+            String key = args[i].substring(2);
+            options.put(key, i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true");
+        }
+        System.exit(new MonitorLifecycleCheck(options).run() ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        IntegrationStub.Settings stubSettings = new IntegrationStub.Settings();
+        stubSettings.latencyMillis = longOption("latency-ms", 5);
+        IntegrationStub stub = new IntegrationStub(stubSettings).start();
+
+        HttpClient http = HttpClient.newHttpClient();
+        URI statusUri = URI.create(stub.url() + "/status");
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(intOption("threads", 4), runnable -> {
+            Thread thread = new Thread(runnable, "Monitor-Check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        StatusBatcher batcher = new StatusBatcher(batch -> {
+            HttpRequest request = HttpRequest.newBuilder(statusUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(IntegrationCodec.statusRequest(batch)))
+                .build();
+            HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                return IntegrationCodec.readStatuses(reader);
+            }
+        }, scheduler, longOption("batch-window-ms", 20), 200);
+
+        SessionStore store = new SessionStore();
+        AtomicLong pollErrors = new AtomicLong();
+        List<VerificationSession> sessions = new ArrayList<>(players);
+        List<ScheduledFuture<?>> tasks = new ArrayList<>(players);
+        Map<Fate, AtomicLong> fates = new EnumMap<>(Fate.class);
+        for (Fate fate : Fate.values()) {
+            fates.put(fate, new AtomicLong());
+        }
+
+        // Arrivals are spread past the timeout so that, at "disable", early sessions have timed out
+        // while late ones are still pending
+        long lifetime = intervalMillis * maxAttempts;
+        long arrivalWindow = lifetime * 3 / 2;
+        double verifyRate = doubleOption("verify-rate", 0.4);
+        double quitRate = doubleOption("quit-rate", 0.2);
+        System.out.printf("Monitoring %d players against %s (interval %d ms, timeout after %d polls)%n",
+            players, stub.url(), intervalMillis, maxAttempts);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            long arrival = arrivalWindow * i / players;
+            sleepUntil(started, arrival);
+
+            VerificationSession session = store.begin(UUID.randomUUID(), "Player" + i, "session-" + i, null);
+            StatusMonitor monitor = new StatusMonitor(session, batcher, () -> false,
+                store::complete,
+                timedOut -> store.end(timedOut, SessionStore.State.EXPIRED),
+                error -> pollErrors.incrementAndGet(),
+                maxAttempts);
+            ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(monitor, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            session.bindMonitor(() -> task.cancel(false));
+            sessions.add(session);
+            tasks.add(task);
+
+            // What happens on the wallet / player side, somewhere inside the session's lifetime
+            double roll = ThreadLocalRandom.current().nextDouble();
+            long delay = ThreadLocalRandom.current().nextLong(lifetime / 2) + intervalMillis;
+            if (roll < verifyRate) {
+                fates.get(Fate.VERIFY).incrementAndGet();
+                scheduler.schedule(() -> stub.markVerified(session.playerName), delay, TimeUnit.MILLISECONDS);
+            } else if (roll < verifyRate + quitRate) {
+                fates.get(Fate.QUIT).incrementAndGet();
+                scheduler.schedule(() -> store.cancel(session.playerId), delay, TimeUnit.MILLISECONDS);
+            } else {
+                fates.get(Fate.IDLE).incrementAndGet();
+            }
+        }
+
+        // Plugin disable: whatever is still pending is cancelled
+        sleepUntil(started, arrivalWindow + lifetime / 2);
+        int pendingAtDisable = store.pendingSessions().size();
+        store.clear();
+
+        Thread.sleep(settleMillis);
+        long requestsBefore = stub.requests();
+        Thread.sleep(settleMillis);
+        long requestsAfterSettle = stub.requests() - requestsBefore;
+        int inFlightAfterSettle = stub.inFlight();
+        long lingeringTasks = tasks.stream().filter(task -> !task.isDone()).count();
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<SessionStore.State, Long> outcomes = new EnumMap<>(SessionStore.State.class);
+        for (VerificationSession session : sessions) {
+            outcomes.merge(session.getState(), 1L, Long::sum);
+        }
+
+        boolean passed = requestsAfterSettle == 0 && inFlightAfterSettle == 0 && lingeringTasks == 0
+            && store.size() == 0 && outcomes.getOrDefault(SessionStore.State.PENDING, 0L) == 0;
+
+        JsonObject report = new JsonObject();
+        report.addProperty("players", players);
+        report.addProperty("intervalMs", intervalMillis);
+        report.addProperty("maxAttempts", maxAttempts);
+        report.addProperty("elapsedSeconds", elapsedSeconds);
+        fates.forEach((fate, count) -> report.addProperty("fate" + capitalize(fate.name()), count.get()));
+        outcomes.forEach((state, count) -> report.addProperty("state" + capitalize(state.name()), count));
+        report.addProperty("pendingAtDisable", pendingAtDisable);
+        report.addProperty("stubRequests", stub.requests());
+        report.addProperty("stubPlayersQueried", stub.playersQueried());
+        report.addProperty("stubMaxInFlight", stub.maxInFlight());
+        report.addProperty("pollErrors", pollErrors.get());
+        report.addProperty("requestsAfterSettle", requestsAfterSettle);
+        report.addProperty("inFlightAfterSettle", inFlightAfterSettle);
+        report.addProperty("lingeringTasks", lingeringTasks);
+        report.addProperty("passed", passed);
+
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(report);
+        System.out.println(json);
+        String reportFile = options.get("report");
+        if (reportFile != null) {
+            Files.writeString(Path.of(reportFile), json, StandardCharsets.UTF_8);
+            System.out.println("Report written to " + reportFile);
+        }
+
+        scheduler.shutdownNow();
+        stub.close();
+        return passed;
+    }
+
+    // --- helpers ---
+
+    private static void sleepUntil(long startedNanos, long offsetMillis) throws InterruptedException {
+        long remaining = offsetMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        if (remaining > 0) Thread.sleep(remaining);
+    }
+
+    private static String capitalize(String name) {
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+
+    private int intOption(String key, int fallback) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : fallback;
+    }
+
+    private long longOption(String key, long fallback) {
+        return options.containsKey(key) ? Long.parseLong(options.get(key)) : fallback;
+    }
+
+    private double doubleOption(String key, double fallback) {
+        return options.containsKey(key) ? Double.parseDouble(options.get(key)) : fallback;
+    }
+}
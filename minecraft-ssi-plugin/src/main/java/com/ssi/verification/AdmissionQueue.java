@@ -0,0 +1,107 @@
+package com.ssi.verification;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Fair FIFO admission for invitation creation during verification bursts. At most
+ * {@code maxConcurrent} tasks talk to the agent at once; everyone else waits in arrival order and
+ * is started in a batch as soon as permits free up.
+ */
+public class AdmissionQueue {
+
+    public static final int REJECTED = -1;
+    public static final int STARTED = 0;
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final LinkedHashMap<UUID, Supplier<CompletableFuture<?>>> waiting = new LinkedHashMap<>();
+    private int running;
+
+    public AdmissionQueue(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Starts the task now if a permit is free, otherwise queues it.
+     * Returns {@link #STARTED}, the 1-based queue position, or {@link #REJECTED} when the queue is full.
+     */
+    public int submit(UUID id, Supplier<CompletableFuture<?>> task) {
+        synchronized (this) {
+            if (waiting.containsKey(id)) {
+                return positionOf(id);
+            }
+            if (running >= maxConcurrent || !waiting.isEmpty()) {
+                if (waiting.size() >= maxQueued) return REJECTED;
+                waiting.put(id, task);
+                return waiting.size();
+            }
+            running++;
+        }
+        start(task);
+        return STARTED;
+    }
+
+    public synchronized boolean cancel(UUID id) {
+        return waiting.remove(id) != null;
+    }
+
+    public synchronized int positionOf(UUID id) {
+        int position = 1;
+        for (UUID queued : waiting.keySet()) {
+            if (queued.equals(id)) return position;
+            position++;
+        }
+        return REJECTED;
+    }
+
+    // One pass for all queued players, for the periodic position broadcast
+    public synchronized Map<UUID, Integer> positions() {
+        Map<UUID, Integer> positions = new LinkedHashMap<>();
+        int position = 1;
+        for (UUID queued : waiting.keySet()) {
+            positions.put(queued, position++);
+        }
+        return positions;
+    }
+
+    public synchronized int waitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized int runningCount() {
+        return running;
+    }
+
+    private void start(Supplier<CompletableFuture<?>> task) {
+        CompletableFuture<?> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> release());
+    }
+
+    private void release() {
+        List<Supplier<CompletableFuture<?>>> batch = new ArrayList<>();
+        synchronized (this) {
+            running--;
+            Iterator<Supplier<CompletableFuture<?>>> next = waiting.values().iterator();
+            while (running < maxConcurrent && next.hasNext()) {
+                batch.add(next.next());
+                next.remove();
+                running++;
+            }
+        }
+        // Tasks are started outside the lock so agent calls never run while holding it
+        batch.forEach(this::start);
+    }
+}
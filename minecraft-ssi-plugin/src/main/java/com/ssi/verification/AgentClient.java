@@ -0,0 +1,389 @@
+package com.ssi.verification;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Non-blocking client for the ACA-Py admin API and the ssi-tutorial verifier. Every call is
+ * enqueued on a bounded OkHttp dispatcher backed by its own executor and completes a future,
+ * so neither the common pool nor Bukkit scheduler threads ever wait on the network.
+ *
+ * <p>The agent and the verifier each sit behind a {@link CircuitBreaker}, and each endpoint class
+ * ({@link Pool}) has its own limit on calls in flight, so one outage or slow endpoint cannot tie up
+ * the dispatcher. Calls refused by either fail immediately, without touching the network.
+ */
+public class AgentClient {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    public static class Settings {
+        public long connectTimeoutSeconds = 10;
+        public long readTimeoutSeconds = 30;
+        public int maxRequests = 64;
+        public int maxRequestsPerHost = 16;
+        public int maxInvitationCalls = 8;
+        public int maxConnectionCalls = 8;
+        public int maxProofCalls = 8;
+        public int failureThreshold = 5;
+        public long openSeconds = 10;
+        public long maxOpenSeconds = 120;
+        public String agentHealthPath = "/status/live";
+        public String verifierHealthPath = "/";
+    }
+
+    /** Endpoint classes, each with its own concurrency limit (bulkhead). */
+    public enum Pool { INVITATION, CONNECTION, PROOF }
+
+    /** Non-2xx reply from the agent, with the status kept so callers can branch on it. */
+    public static class AgentException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public AgentException(int status, String message) {
+            super("HTTP " + status + ": " + message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    /** The service's circuit is open; nothing was sent. */
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(CircuitBreaker breaker) {
+            super(breaker.getName() + " unavailable, retrying in " + (breaker.retryInMillis() + 999) / 1000 + "s");
+        }
+    }
+
+    /** The endpoint class already has its limit of calls in flight; nothing was sent. */
+    public static class BulkheadFullException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public BulkheadFullException(Pool pool) {
+            super("Too many " + pool.name().toLowerCase(Locale.ROOT) + " calls in flight");
+        }
+    }
+
+    private final String adminUrl;
+    private final String verifierUrl;
+    private final ThreadPoolExecutor executor;
+    private final OkHttpClient httpClient;
+    private final CircuitBreaker agentCircuit;
+    private final CircuitBreaker verifierCircuit;
+    private final Map<Pool, Semaphore> bulkheads = new EnumMap<>(Pool.class);
+    private final String agentHealthUrl;
+    private final String verifierHealthUrl;
+    private volatile Metrics metrics;
+    private volatile BiConsumer<CircuitBreaker, CircuitBreaker.State> circuitListener;
+
+    public AgentClient(String adminUrl, String verifierUrl, Settings settings) {
+        this.adminUrl = adminUrl;
+        this.verifierUrl = verifierUrl;
+        agentHealthUrl = adminUrl + settings.agentHealthPath;
+        verifierHealthUrl = verifierUrl + settings.verifierHealthPath;
+
+        long openMillis = TimeUnit.SECONDS.toMillis(settings.openSeconds);
+        long maxOpenMillis = TimeUnit.SECONDS.toMillis(settings.maxOpenSeconds);
+        agentCircuit = new CircuitBreaker("agent", settings.failureThreshold, openMillis, maxOpenMillis, this::onTransition);
+        verifierCircuit = new CircuitBreaker("verifier", settings.failureThreshold, openMillis, maxOpenMillis, this::onTransition);
+        bulkheads.put(Pool.INVITATION, new Semaphore(Math.max(1, settings.maxInvitationCalls)));
+        bulkheads.put(Pool.CONNECTION, new Semaphore(Math.max(1, settings.maxConnectionCalls)));
+        bulkheads.put(Pool.PROOF, new Semaphore(Math.max(1, settings.maxProofCalls)));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(settings.maxRequests, settings.maxRequests, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "SSI-Agent-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequests(settings.maxRequests);
+        dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost);
+
+        httpClient = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(settings.maxRequestsPerHost, 5, TimeUnit.MINUTES))
+            .connectTimeout(settings.connectTimeoutSeconds, TimeUnit.SECONDS)
+            .readTimeout(settings.readTimeoutSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    public String getAdminUrl() {
+        return adminUrl;
+    }
+
+    // --- ssi-tutorial verifier ---
+
+    public CompletableFuture<JsonObject> createInvitation(String label, String alias) {
+        JsonObject request = new JsonObject();
+        request.addProperty("label", label);
+        request.addProperty("alias", alias);
+        return post(verifierCircuit, Pool.INVITATION, "create-invitation", verifierUrl + "/v2/create-invitation", request.toString());
+    }
+
+    public CompletableFuture<JsonObject> getConnection(String connectionId) {
+        return get(verifierCircuit, Pool.CONNECTION, "connection", verifierUrl + "/v2/connections?connectionId=" + encode(connectionId));
+    }
+
+    public CompletableFuture<JsonObject> sendProofRequest(String connectionId, String label) {
+        JsonObject proofRequest = new JsonObject();
+        proofRequest.addProperty("proofRequestlabel", label);
+        proofRequest.addProperty("connectionId", connectionId);
+        proofRequest.addProperty("version", "1.0");
+        return post(verifierCircuit, Pool.PROOF, "send-proof-request", verifierUrl + "/v2/send-proof-request", proofRequest.toString());
+    }
+
+    // --- ACA-Py admin ---
+
+    // The presentation request arrives pre-serialized, so only the connection id is spliced in per call
+    public CompletableFuture<JsonObject> sendPresentationRequest(String connectionId, String presentationRequest) {
+        String body = "{\"connection_id\":" + new JsonPrimitive(connectionId)
+            + ",\"presentation_request\":" + presentationRequest + "}";
+        return post(agentCircuit, Pool.PROOF, "send-presentation-request", adminUrl + "/present-proof-2.0/send-request", body);
+    }
+
+    public CompletableFuture<JsonObject> getProofRecord(String proofExchangeId) {
+        return get(agentCircuit, Pool.PROOF, "proof-record", adminUrl + "/present-proof-2.0/records/" + encode(proofExchangeId));
+    }
+
+    // Kept on the agent once finished (auto_remove off) so the verdict can be read back; callers delete it
+    public CompletableFuture<JsonObject> sendRevocationCheck(String connectionId, String presentationRequest) {
+        String body = "{\"connection_id\":" + new JsonPrimitive(connectionId)
+            + ",\"auto_verify\":true,\"auto_remove\":false,\"presentation_request\":" + presentationRequest + "}";
+        return post(agentCircuit, Pool.PROOF, "send-revocation-check", adminUrl + "/present-proof-2.0/send-request", body);
+    }
+
+    public CompletableFuture<JsonObject> deleteProofRecord(String proofExchangeId) {
+        return execute(agentCircuit, Pool.PROOF, "delete-proof-record",
+            new Request.Builder().url(adminUrl + "/present-proof-2.0/records/" + encode(proofExchangeId)).delete().build());
+    }
+
+    public CompletableFuture<JsonObject> listProofRecords(String url) {
+        return get(agentCircuit, Pool.PROOF, "proof-records", url);
+    }
+
+    public CompletableFuture<JsonObject> listConnections(String state) {
+        return get(agentCircuit, Pool.CONNECTION, "connections", adminUrl + "/connections?state=" + encode(state));
+    }
+
+    public CompletableFuture<JsonObject> deleteConnection(String connectionId) {
+        return execute(agentCircuit, Pool.INVITATION, "delete-connection",
+            new Request.Builder().url(adminUrl + "/connections/" + encode(connectionId)).delete().build());
+    }
+
+    public CompletableFuture<JsonObject> getCreatedCredentialDefinitions() {
+        return get(agentCircuit, Pool.PROOF, "credential-definitions", adminUrl + "/credential-definitions/created");
+    }
+
+    public int inFlight() {
+        return httpClient.dispatcher().runningCallsCount() + httpClient.dispatcher().queuedCallsCount();
+    }
+
+    public List<CircuitBreaker> circuits() {
+        return List.of(agentCircuit, verifierCircuit);
+    }
+
+    /** The first circuit that is not closed, or null when both services are taking calls. */
+    public CircuitBreaker openCircuit() {
+        for (CircuitBreaker breaker : circuits()) {
+            if (!breaker.allowRequest()) return breaker;
+        }
+        return null;
+    }
+
+    /** Told about every circuit transition, on whichever thread caused it. */
+    public void setCircuitListener(BiConsumer<CircuitBreaker, CircuitBreaker.State> listener) {
+        this.circuitListener = listener;
+    }
+
+    /**
+     * Sends a health probe for each circuit whose open period has passed. Meant to be called
+     * periodically; probes bypass the circuit and the bulkheads, and any reply below 500 counts
+     * as healthy.
+     */
+    public void probe() {
+        probe(agentCircuit, agentHealthUrl);
+        probe(verifierCircuit, verifierHealthUrl);
+    }
+
+    private void probe(CircuitBreaker breaker, String url) {
+        if (!breaker.startProbe()) return;
+        httpClient.newCall(new Request.Builder().url(url).get().build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                breaker.probeFailed();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.code() < 500) {
+                        breaker.probeSucceeded();
+                    } else {
+                        breaker.probeFailed();
+                    }
+                }
+            }
+        });
+    }
+
+    private void onTransition(CircuitBreaker breaker, CircuitBreaker.State state) {
+        BiConsumer<CircuitBreaker, CircuitBreaker.State> listener = circuitListener;
+        if (listener != null) listener.accept(breaker, state);
+    }
+
+    /** Waits, up to the given time, for calls already sent or queued to finish. */
+    public void awaitIdle(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (inFlight() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public void shutdown() {
+        httpClient.dispatcher().cancelAll();
+        executor.shutdownNow();
+        httpClient.connectionPool().evictAll();
+    }
+
+    // Latency and failures are recorded per endpoint once set; null turns recording off
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private CompletableFuture<JsonObject> get(CircuitBreaker breaker, Pool pool, String endpoint, String url) {
+        return execute(breaker, pool, endpoint, new Request.Builder().url(url).get().build());
+    }
+
+    private CompletableFuture<JsonObject> post(CircuitBreaker breaker, Pool pool, String endpoint, String url, String json) {
+        return execute(breaker, pool, endpoint, new Request.Builder().url(url).post(RequestBody.create(json, JSON)).build());
+    }
+
+    private CompletableFuture<JsonObject> execute(CircuitBreaker breaker, Pool pool, String endpoint, Request request) {
+        if (!breaker.allowRequest()) {
+            rejected("circuit-open");
+            return CompletableFuture.failedFuture(new CircuitOpenException(breaker));
+        }
+        Semaphore bulkhead = bulkheads.get(pool);
+        if (!bulkhead.tryAcquire()) {
+            rejected("bulkhead-full");
+            return CompletableFuture.failedFuture(new BulkheadFullException(pool));
+        }
+
+        CompletableFuture<JsonObject> future = call(endpoint, request);
+        future.whenComplete((result, error) -> {
+            bulkhead.release();
+            if (error == null) {
+                breaker.onSuccess();
+            } else if (isOutage(error)) {
+                breaker.onFailure();
+            }
+        });
+        return future;
+    }
+
+    // Only transport errors and 5xx say the service is unwell; a 4xx means it answered
+    private static boolean isOutage(Throwable error) {
+        if (error instanceof CancellationException) return false;
+        if (error instanceof AgentException agentError) return agentError.getStatus() >= 500;
+        return error instanceof IOException;
+    }
+
+    private CompletableFuture<JsonObject> call(String endpoint, Request request) {
+        CompletableFuture<JsonObject> future = new CompletableFuture<>();
+        Call call = httpClient.newCall(request);
+        long startedAt = System.nanoTime();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    ResponseBody body = response.body();
+                    String text = body != null ? body.string() : "";
+                    if (!response.isSuccessful()) {
+                        future.completeExceptionally(new AgentException(response.code(), text));
+                        return;
+                    }
+                    JsonElement json = text.isEmpty() ? new JsonObject() : JsonParser.parseString(text);
+                    future.complete(json.isJsonObject() ? json.getAsJsonObject() : new JsonObject());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+
+        // Cancelling the future abandons the HTTP call as well
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) call.cancel();
+            record(endpoint, System.nanoTime() - startedAt, error);
+        });
+        return future;
+    }
+
+    private void record(String endpoint, long nanos, Throwable error) {
+        Metrics current = metrics;
+        if (current == null) return;
+        current.histogram("ssi_agent_request_seconds", "Agent HTTP call latency by endpoint",
+            Metrics.LATENCY_BUCKETS, "endpoint", endpoint).observeNanos(nanos);
+        if (error != null) {
+            current.counter("ssi_agent_request_errors_total", "Failed agent HTTP calls by endpoint",
+                "endpoint", endpoint).increment();
+        }
+    }
+
+    private void rejected(String reason) {
+        Metrics current = metrics;
+        if (current == null) return;
+        current.counter("ssi_agent_requests_rejected_total", "Agent calls refused without being sent, by reason",
+            "reason", reason).increment();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
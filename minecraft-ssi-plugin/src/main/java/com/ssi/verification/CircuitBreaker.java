@@ -0,0 +1,94 @@
+package com.ssi.verification;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker for one remote service. It opens after a run of consecutive failures; while it
+ * is open, callers fail fast instead of waiting on timeouts. Once the open period has passed, the
+ * owner sends a single health probe (half-open): success closes the circuit, and failure reopens it
+ * for twice as long, up to a cap.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final long maxOpenMillis;
+    private final BiConsumer<CircuitBreaker, State> onTransition;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long currentOpenMillis;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis, long maxOpenMillis,
+                          BiConsumer<CircuitBreaker, State> onTransition) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(1, openMillis);
+        this.maxOpenMillis = Math.max(this.openMillis, maxOpenMillis);
+        this.onTransition = onTransition;
+        this.currentOpenMillis = this.openMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    /** Roughly how long until the next health probe; 0 while closed. */
+    public synchronized long retryInMillis() {
+        if (state == State.CLOSED) return 0;
+        return Math.max(0, openedAt + currentOpenMillis - System.currentTimeMillis());
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.CLOSED) consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            currentOpenMillis = openMillis;
+            open();
+        }
+    }
+
+    /** Moves an open circuit whose period has passed to half-open; true if the caller should probe now. */
+    public synchronized boolean startProbe() {
+        if (state != State.OPEN || System.currentTimeMillis() - openedAt < currentOpenMillis) return false;
+        transition(State.HALF_OPEN);
+        return true;
+    }
+
+    public synchronized void probeSucceeded() {
+        if (state != State.HALF_OPEN) return;
+        consecutiveFailures = 0;
+        currentOpenMillis = openMillis;
+        transition(State.CLOSED);
+    }
+
+    public synchronized void probeFailed() {
+        if (state != State.HALF_OPEN) return;
+        currentOpenMillis = Math.min(maxOpenMillis, currentOpenMillis * 2);
+        open();
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        state = next;
+        if (onTransition != null) onTransition.accept(this, next);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ssi.verification;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Invitations created ahead of demand, each with its QR map buffer already encoded, so /verify can
+ * hand a map over in the same tick. The target size follows a moving average of how many were taken
+ * per refill interval; invitations older than the agent-side validity window are discarded.
+ */
+public class InvitationPool {
+
+    public record Invitation(String connectionId, String invitationUrl, byte[] qrPixels, long createdAt) { }
+
+    private final Supplier<CompletableFuture<Invitation>> factory;
+    private final Consumer<Invitation> recycler;
+    private final int minSize;
+    private final int maxSize;
+    private final int maxConcurrentFills;
+    private final long maxAgeMillis;
+    private final Logger logger;
+
+    private final ConcurrentLinkedDeque<Invitation> ready = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger filling = new AtomicInteger();
+    private final AtomicInteger takenSinceTick = new AtomicInteger();
+    private volatile double demandPerInterval;
+    private volatile int target;
+
+    public InvitationPool(Supplier<CompletableFuture<Invitation>> factory, Consumer<Invitation> recycler,
+                          int minSize, int maxSize, int maxConcurrentFills, long maxAgeMillis, Logger logger) {
+        this.factory = factory;
+        this.recycler = recycler;
+        this.minSize = minSize;
+        this.maxSize = Math.max(minSize, maxSize);
+        this.maxConcurrentFills = maxConcurrentFills;
+        this.maxAgeMillis = maxAgeMillis;
+        this.logger = logger;
+        this.target = minSize;
+    }
+
+    // Safe to call from the main thread: never blocks, returns null when the pool is dry
+    public Invitation poll() {
+        takenSinceTick.incrementAndGet();
+        Invitation invitation;
+        while ((invitation = ready.pollFirst()) != null) {
+            if (!isExpired(invitation)) break;
+            recycler.accept(invitation);
+        }
+
+        // Low-water mark: start refilling early rather than waiting for the next tick
+        if (ready.size() + filling.get() < target / 2 + 1) {
+            fill();
+        }
+        return invitation;
+    }
+
+    // Periodic upkeep: drop invitations past their validity, re-size from demand, top up
+    public void tick() {
+        for (Invitation invitation : ready) {
+            if (isExpired(invitation) && ready.remove(invitation)) {
+                recycler.accept(invitation);
+            }
+        }
+
+        double taken = takenSinceTick.getAndSet(0);
+        demandPerInterval = demandPerInterval * 0.7 + taken * 0.3;
+        // Keep roughly two intervals of observed demand on hand
+        target = (int) Math.min(maxSize, Math.max(minSize, Math.ceil(demandPerInterval * 2)));
+        fill();
+    }
+
+    // Hands back an invitation nobody saw (e.g. the player left before the map was given)
+    public void offer(Invitation invitation) {
+        if (!isExpired(invitation)) {
+            ready.addFirst(invitation);
+        } else {
+            recycler.accept(invitation);
+        }
+    }
+
+    public int size() {
+        return ready.size();
+    }
+
+    public void clear() {
+        Invitation invitation;
+        while ((invitation = ready.pollFirst()) != null) {
+            recycler.accept(invitation);
+        }
+    }
+
+    private void fill() {
+        // Bounded per call so fills that fail immediately cannot spin here
+        for (int launched = 0; launched < maxConcurrentFills && ready.size() + filling.get() < target; launched++) {
+            int current = filling.get();
+            if (current >= maxConcurrentFills) return;
+            if (!filling.compareAndSet(current, current + 1)) {
+                launched--;
+                continue;
+            }
+
+            CompletableFuture<Invitation> created;
+            try {
+                created = factory.get();
+            } catch (RuntimeException e) {
+                created = CompletableFuture.failedFuture(e);
+            }
+            created.whenComplete((invitation, error) -> {
+                if (error != null) {
+                    // No retry loop here; the next tick tries again, so a down agent is not hammered
+                    logger.fine("Invitation pool fill failed: " + error.getMessage());
+                } else if (invitation != null) {
+                    ready.addLast(invitation);
+                }
+                filling.decrementAndGet();
+            });
+        }
+    }
+
+    private boolean isExpired(Invitation invitation) {
+        return System.currentTimeMillis() - invitation.createdAt() > maxAgeMillis;
+    }
+}
@@ -0,0 +1,180 @@
+package com.ssi.verification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Small in-process metrics registry: counters, fixed-bucket histograms and gauges, each with at
+ * most one label. Recording is a couple of {@link LongAdder} increments, so it is safe on the main
+ * thread; {@link #scrape()} renders everything in the Prometheus text exposition format.
+ */
+public class Metrics {
+
+    /** Latency buckets in seconds, from sub-millisecond map renders up to slow agent calls. */
+    public static final double[] LATENCY_BUCKETS = {
+        0.0001, 0.0005, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+
+    /** Stage buckets in seconds, sized for how long players take with their wallets. */
+    public static final double[] STAGE_BUCKETS = {1, 2, 5, 10, 20, 30, 60, 90, 120, 180, 300};
+
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static class Histogram {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double seconds) {
+            int bucket = 0;
+            while (bucket < bounds.length && seconds > bounds[bucket]) bucket++;
+            buckets[bucket].increment();
+            count.increment();
+            sum.add(seconds);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1e9);
+        }
+
+        public void observeMillis(long millis) {
+            observe(millis / 1e3);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double sum() {
+            return sum.sum();
+        }
+
+        // Upper bound of the bucket holding the q-quantile; good enough for an admin summary
+        public double quantile(double q) {
+            long total = count.sum();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) return bounds[i];
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private record Family(String name, String help, String type, String labelName, Map<String, Object> children) { }
+
+    private final ConcurrentSkipListMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    public Counter counter(String name, String help, String labelName, String labelValue) {
+        return (Counter) child(name, help, "counter", labelName, labelValue, Counter::new);
+    }
+
+    public Histogram histogram(String name, String help, double[] bounds) {
+        return histogram(name, help, bounds, null, null);
+    }
+
+    public Histogram histogram(String name, String help, double[] bounds, String labelName, String labelValue) {
+        return (Histogram) child(name, help, "histogram", labelName, labelValue, () -> new Histogram(bounds));
+    }
+
+    public void gauge(String name, String help, LongSupplier value) {
+        child(name, help, "gauge", null, null, () -> value);
+    }
+
+    private Object child(String name, String help, String type, String labelName, String labelValue,
+                         Supplier<Object> factory) {
+        Family family = families.computeIfAbsent(name,
+            key -> new Family(name, help, type, labelName, new ConcurrentSkipListMap<>()));
+        return family.children().computeIfAbsent(labelValue == null ? "" : labelValue, key -> factory.get());
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(family.name()).append(' ').append(family.type()).append('\n');
+
+            for (Map.Entry<String, Object> child : family.children().entrySet()) {
+                String label = child.getKey().isEmpty() ? "" : family.labelName() + "=\"" + escape(child.getKey()) + "\"";
+                Object metric = child.getValue();
+
+                if (metric instanceof Counter counter) {
+                    sample(out, family.name(), label, counter.get());
+                } else if (metric instanceof LongSupplier gauge) {
+                    sample(out, family.name(), label, gauge.getAsLong());
+                } else if (metric instanceof Histogram histogram) {
+                    long cumulative = 0;
+                    for (int i = 0; i < histogram.bounds.length; i++) {
+                        cumulative += histogram.buckets[i].sum();
+                        sample(out, family.name() + "_bucket", join(label, "le=\"" + format(histogram.bounds[i]) + "\""), cumulative);
+                    }
+                    cumulative += histogram.buckets[histogram.bounds.length].sum();
+                    sample(out, family.name() + "_bucket", join(label, "le=\"+Inf\""), cumulative);
+                    out.append(family.name()).append("_sum").append(braces(label)).append(' ')
+                        .append(format(histogram.sum())).append('\n');
+                    sample(out, family.name() + "_count", label, cumulative);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    // Snapshot for the in-game summary: every counter, gauge and histogram child by display name
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new ConcurrentSkipListMap<>();
+        for (Family family : families.values()) {
+            family.children().forEach((labelValue, metric) ->
+                snapshot.put(labelValue.isEmpty() ? family.name() : family.name() + "{" + labelValue + "}", metric));
+        }
+        return snapshot;
+    }
+
+    private static void sample(StringBuilder out, String name, String label, long value) {
+        out.append(name).append(braces(label)).append(' ').append(value).append('\n');
+    }
+
+    private static String braces(String label) {
+        return label.isEmpty() ? "" : "{" + label + "}";
+    }
+
+    private static String join(String label, String extra) {
+        return label.isEmpty() ? extra : label + "," + extra;
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
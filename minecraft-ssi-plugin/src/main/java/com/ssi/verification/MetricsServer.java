@@ -0,0 +1,70 @@
+package com.ssi.verification;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local scrape endpoint serving {@link Metrics#scrape()} in the Prometheus text format. Binds to
+ * loopback by default; scrapes are rendered on the server's own thread, never the main thread.
+ */
+public class MetricsServer {
+
+    private final String host;
+    private final int port;
+    private final String path;
+    private final Metrics metrics;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsServer(String host, int port, String path, Metrics metrics) {
+        this.host = host;
+        this.port = port;
+        this.path = path;
+        this.metrics = metrics;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SSI-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(path, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
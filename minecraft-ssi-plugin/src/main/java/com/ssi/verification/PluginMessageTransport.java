@@ -0,0 +1,116 @@
+package com.ssi.verification;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Replication over the proxy's plugin-messaging channel, using BungeeCord's {@code Forward} to
+ * {@code ALL} (Velocity understands it with its BungeeCord channel enabled). Plugin messages travel
+ * through a connected player, so outgoing messages wait here while the server is empty and go out
+ * with the first player to join.
+ */
+public class PluginMessageTransport implements VerificationReplicator.Transport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    // Plugin message payload limit minus the Forward header
+    private static final int MAX_PAYLOAD = 32766 - 64;
+    private static final int MAX_SENDS_PER_TICK = 32;
+
+    private final Plugin plugin;
+    private final String subchannel;
+    private final ConcurrentLinkedQueue<byte[]> outgoing = new ConcurrentLinkedQueue<>();
+
+    private volatile Consumer<byte[]> receiver;
+    private BukkitTask drainTask;
+
+    public PluginMessageTransport(Plugin plugin, String subchannel) {
+        this.plugin = plugin;
+        this.subchannel = subchannel;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        Bukkit.getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+        drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    @Override
+    public void send(byte[] message) {
+        if (message.length > maxMessageBytes()) {
+            plugin.getLogger().warning("Dropping replication message of " + message.length + " bytes (limit " + maxMessageBytes() + ")");
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(subchannel);
+            out.writeShort(message.length);
+            out.write(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outgoing.add(bytes.toByteArray());
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return MAX_PAYLOAD - subchannel.length();
+    }
+
+    @Override
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        Bukkit.getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        outgoing.clear();
+        receiver = null;
+    }
+
+    // Main thread
+    private void drain() {
+        if (outgoing.isEmpty()) return;
+        Iterator<? extends Player> online = Bukkit.getOnlinePlayers().iterator();
+        if (!online.hasNext()) return;
+
+        Player carrier = online.next();
+        for (int sent = 0; sent < MAX_SENDS_PER_TICK; sent++) {
+            byte[] message = outgoing.poll();
+            if (message == null) return;
+            carrier.sendPluginMessage(plugin, CHANNEL, message);
+        }
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        Consumer<byte[]> current = receiver;
+        if (current == null || !CHANNEL.equals(channel)) return;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!subchannel.equals(in.readUTF())) return;
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            current.accept(payload);
+        } catch (IOException e) {
+            plugin.getLogger().fine("Ignoring malformed plugin message: " + e.getMessage());
+        }
+    }
+}
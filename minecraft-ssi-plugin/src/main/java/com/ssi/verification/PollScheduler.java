@@ -0,0 +1,165 @@
+package com.ssi.verification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel driving every pending session's polls from one thread. Everything that falls
+ * due in the same slot is handed over as a single batch, so callers can answer many sessions with
+ * one agent request; scheduling and cancelling are O(1) whatever the number of sessions.
+ */
+public class PollScheduler<T> {
+
+    /** Handle for one scheduled item. */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Object item;
+        private final long deadlineTick;
+        private long rounds;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(Object item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        public boolean isPending() {
+            return state.get() == PENDING;
+        }
+
+        private boolean expire() {
+            return state.compareAndSet(PENDING, EXPIRED);
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<ArrayDeque<Timeout>> wheel;
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> handler;
+    private final Logger logger;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile long startedAt;
+    private volatile long currentTick;
+    private Thread worker;
+    private volatile boolean running;
+
+    public PollScheduler(long tickMillis, int slots, Consumer<List<T>> handler, Logger logger) {
+        this.tickMillis = Math.max(1, tickMillis);
+        int size = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.handler = handler;
+        this.logger = logger;
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        running = true;
+        worker = new Thread(this::run, "SSI-Poll-Timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+        incoming.clear();
+        wheel.forEach(ArrayDeque::clear);
+        pending.set(0);
+    }
+
+    public Timeout schedule(T item, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        Timeout timeout = new Timeout(item, currentTick + ticks);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos((currentTick + 1) * tickMillis);
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) return;
+                }
+                continue;
+            }
+
+            long tick = ++currentTick;
+            transferIncoming(tick);
+            List<T> due = expire(wheel.get((int) (tick & mask)));
+            if (due.isEmpty()) continue;
+
+            try {
+                handler.accept(due);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Poll batch of " + due.size() + " failed", e);
+            }
+        }
+    }
+
+    // New timeouts are only placed into slots by the worker, so the wheel needs no locking
+    private void transferIncoming(long tick) {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (!timeout.isPending()) {
+                pending.decrementAndGet();
+                continue;
+            }
+            long target = Math.max(timeout.deadlineTick, tick);
+            timeout.rounds = (target - tick) / wheel.size();
+            wheel.get((int) (target & mask)).add(timeout);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> expire(ArrayDeque<Timeout> slot) {
+        List<T> due = new ArrayList<>();
+        Iterator<Timeout> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Timeout timeout = entries.next();
+            if (!timeout.isPending()) {
+                entries.remove();
+                pending.decrementAndGet();
+            } else if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else {
+                entries.remove();
+                pending.decrementAndGet();
+                if (timeout.expire()) due.add((T) timeout.item);
+            }
+        }
+        return due;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ssi.verification;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared connection_id -> latest proof exchange view for every session that has no pres_ex_id.
+ * One batched fetch of /present-proof-2.0/records per refresh feeds all waiting sessions, and only
+ * records for watched connections are kept, so memory tracks pending players rather than the wallet.
+ */
+public class ProofExchangeIndex {
+
+    public record Entry(String proofExchangeId, String connectionId, String state, String updatedAt) { }
+
+    private final ConcurrentHashMap<String, Entry> byConnection = new ConcurrentHashMap<>();
+    private final Set<String> watched = ConcurrentHashMap.newKeySet();
+
+    // Cleared the first time the agent rejects query filters, so later refreshes use the plain listing
+    private volatile boolean filtersSupported = true;
+
+    public void watch(String connectionId) {
+        watched.add(connectionId);
+    }
+
+    public void unwatch(String connectionId) {
+        watched.remove(connectionId);
+        byConnection.remove(connectionId);
+    }
+
+    public boolean hasWatched() {
+        return !watched.isEmpty();
+    }
+
+    public Entry lookup(String connectionId) {
+        return connectionId != null ? byConnection.get(connectionId) : null;
+    }
+
+    public String refreshUrl(String adminUrl) {
+        String url = adminUrl + "/present-proof-2.0/records";
+        if (!filtersSupported) return url;
+
+        // A single waiting connection can be fetched on its own; otherwise narrow to our verifier records
+        if (watched.size() == 1) {
+            String connectionId = watched.iterator().next();
+            return url + "?role=verifier&connection_id=" + URLEncoder.encode(connectionId, StandardCharsets.UTF_8);
+        }
+        return url + "?role=verifier";
+    }
+
+    public boolean filtersSupported() {
+        return filtersSupported;
+    }
+
+    public void disableFilters() {
+        filtersSupported = false;
+    }
+
+    // Merges a refresh result and returns only the entries that changed since the last pass
+    public List<Entry> ingest(JsonArray results) {
+        List<Entry> changed = new ArrayList<>();
+        for (JsonElement element : results) {
+            if (!element.isJsonObject()) continue;
+            Entry entry = update(element.getAsJsonObject());
+            if (entry != null) changed.add(entry);
+        }
+        return changed;
+    }
+
+    // Applies a single record, from a refresh or a webhook; returns it when it moved the index
+    public Entry update(JsonObject record) {
+        String connectionId = field(record, "connection_id");
+        if (connectionId == null || !watched.contains(connectionId)) return null;
+
+        Entry candidate = new Entry(field(record, "pres_ex_id"), connectionId,
+            field(record, "state"), field(record, "updated_at"));
+        if (candidate.state() == null) return null;
+
+        Entry[] applied = new Entry[1];
+        byConnection.compute(connectionId, (key, current) -> {
+            if (current != null && !isNewer(candidate, current)) return current;
+            applied[0] = candidate;
+            return candidate;
+        });
+        return applied[0];
+    }
+
+    public int size() {
+        return byConnection.size();
+    }
+
+    // ACA-Py timestamps are ISO-8601 in UTC, so string order is time order
+    private static boolean isNewer(Entry candidate, Entry current) {
+        if (candidate.updatedAt() == null || current.updatedAt() == null) {
+            return !candidate.equals(current);
+        }
+        int order = candidate.updatedAt().compareTo(current.updatedAt());
+        return order > 0 || (order == 0 && !candidate.state().equals(current.state()));
+    }
+
+    private static String field(JsonObject json, String key) {
+        return json.has(key) && !json.get(key).isJsonNull() ? json.get(key).getAsString() : null;
+    }
+}
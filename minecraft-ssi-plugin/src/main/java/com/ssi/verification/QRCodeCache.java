@@ -0,0 +1,61 @@
+package com.ssi.verification;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of QR codes already converted to a 128x128 map-colour buffer, keyed by the encoded
+ * invitation URL. Encoding happens on the calling (async) thread; the main thread only copies bytes.
+ */
+public class QRCodeCache {
+
+    public static final int MAP_SIZE = 128;
+
+    // Map palette indices: 0 is transparent (shows the map background), 119 is the darkest black
+    private static final byte LIGHT = 0;
+    private static final byte DARK = 119;
+
+    private final Map<String, byte[]> cache;
+
+    public QRCodeCache(int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public byte[] get(String data) throws WriterException {
+        synchronized (cache) {
+            byte[] pixels = cache.get(data);
+            if (pixels != null) return pixels;
+        }
+
+        // Encode outside the lock; a rare duplicate encode is cheaper than serialising all callers
+        byte[] pixels = encode(data);
+        synchronized (cache) {
+            cache.put(data, pixels);
+        }
+        return pixels;
+    }
+
+    public static byte[] encode(String data) throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, MAP_SIZE, MAP_SIZE);
+        int width = Math.min(MAP_SIZE, bitMatrix.getWidth());
+        int height = Math.min(MAP_SIZE, bitMatrix.getHeight());
+
+        byte[] pixels = new byte[MAP_SIZE * MAP_SIZE];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * MAP_SIZE + x] = bitMatrix.get(x, y) ? DARK : LIGHT;
+            }
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ssi.verification;
+
+import org.bukkit.entity.Player;
+import org.bukkit.map.MapCanvas;
+import org.bukkit.map.MapRenderer;
+import org.bukkit.map.MapView;
+
+/**
+ * Draws a precomputed QR buffer onto the shared map canvas once. The renderer is non-contextual,
+ * so every viewer sees the same canvas and later render passes return immediately.
+ */
+public class QRMapRenderer extends MapRenderer {
+
+    private final byte[] pixels;
+    private final Metrics.Histogram renderTime;
+    private boolean drawn;
+
+    public QRMapRenderer(byte[] pixels) {
+        this(pixels, null);
+    }
+
+    // renderTime receives every pass, including the cheap ones after the first draw
+    public QRMapRenderer(byte[] pixels, Metrics.Histogram renderTime) {
+        super(false);
+        this.pixels = pixels;
+        this.renderTime = renderTime;
+    }
+
+    @Override
+    public void render(MapView map, MapCanvas canvas, Player player) {
+        if (renderTime == null) {
+            draw(canvas);
+            return;
+        }
+        long startedAt = System.nanoTime();
+        draw(canvas);
+        renderTime.observeNanos(System.nanoTime() - startedAt);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void draw(MapCanvas canvas) {
+        if (drawn) return;
+
+        int size = QRCodeCache.MAP_SIZE;
+        for (int y = 0; y < size; y++) {
+            int row = y * size;
+            for (int x = 0; x < size; x++) {
+                canvas.setPixel(x, y, pixels[row + x]);
+            }
+        }
+        drawn = true;
+    }
+}
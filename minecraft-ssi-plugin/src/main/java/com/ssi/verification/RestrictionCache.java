@@ -0,0 +1,87 @@
+package com.ssi.verification;
+
+import com.google.gson.JsonArray;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Credential-definition restrictions with a TTL. Concurrent callers share one in-flight fetch,
+ * an expired snapshot keeps being served while it revalidates, and each snapshot carries the
+ * presentation request already serialized so proof requests only splice in a connection id.
+ */
+public class RestrictionCache {
+
+    public record Snapshot(JsonArray restrictions, String presentationRequest, long fetchedAt) { }
+
+    private final Supplier<CompletableFuture<JsonArray>> loader;
+    private final Function<JsonArray, String> payloadBuilder;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+
+    private volatile Snapshot current;
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    public RestrictionCache(Supplier<CompletableFuture<JsonArray>> loader, Function<JsonArray, String> payloadBuilder,
+                            long ttlMillis, long maxStaleMillis) {
+        this.loader = loader;
+        this.payloadBuilder = payloadBuilder;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    public CompletableFuture<Snapshot> get() {
+        Snapshot snapshot = current;
+        long age = snapshot != null ? System.currentTimeMillis() - snapshot.fetchedAt() : Long.MAX_VALUE;
+
+        if (age < ttlMillis) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+
+        CompletableFuture<Snapshot> refresh = refresh();
+        if (age < ttlMillis + maxStaleMillis) {
+            // Stale but usable: answer now and let the refresh land for the next caller
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        return refresh;
+    }
+
+    // Starts a fetch unless one is already running, in which case callers join it
+    public CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, created)) {
+            CompletableFuture<Snapshot> running = inFlight.get();
+            if (running != null) return running;
+        }
+
+        CompletableFuture<JsonArray> load;
+        try {
+            load = loader.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+
+        load.handle((restrictions, error) -> {
+            Snapshot previous = current;
+            if (error != null) {
+                // Keep serving what we had rather than failing proof requests on a slow or flapping agent
+                return previous;
+            }
+            Snapshot fresh = new Snapshot(restrictions, payloadBuilder.apply(restrictions), System.currentTimeMillis());
+            current = fresh;
+            return fresh;
+        }).whenComplete((snapshot, error) -> {
+            inFlight.set(null);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else if (snapshot == null) {
+                created.completeExceptionally(new IllegalStateException("No credential restrictions available"));
+            } else {
+                created.complete(snapshot);
+            }
+        });
+        return created;
+    }
+}
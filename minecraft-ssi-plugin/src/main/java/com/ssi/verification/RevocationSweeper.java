@@ -0,0 +1,145 @@
+package com.ssi.verification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Re-checks stored verifications in the background, so a revoked credential does not stay verified
+ * until restart. Each {@link #sweep()} round picks at most {@code checksPerRound} players. Online
+ * players go first, then offline players in rotation, each once their last check is old enough.
+ * The checks start at random offsets across the round so the agent sees a steady trickle. Players
+ * found revoked are queued for the main thread to handle in batches.
+ */
+public class RevocationSweeper {
+
+    public enum Result { VALID, REVOKED, UNKNOWN }
+
+    private final VerifiedPlayerStore store;
+    private final Function<VerifiedPlayerStore.Entry, CompletableFuture<Result>> checker;
+    private final int checksPerRound;
+    private final long roundMillis;
+    private final long onlineIntervalMillis;
+    private final long offlineIntervalMillis;
+
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> checking = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<UUID, Long> lastChecked = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<VerifiedPlayerStore.Entry> revoked = new ConcurrentLinkedQueue<>();
+    // Sweep thread only
+    private Iterator<UUID> offlineCursor = Collections.emptyIterator();
+
+    public RevocationSweeper(VerifiedPlayerStore store, Function<VerifiedPlayerStore.Entry, CompletableFuture<Result>> checker,
+                             int checksPerRound, long roundMillis, long onlineIntervalMillis, long offlineIntervalMillis) {
+        this.store = store;
+        this.checker = checker;
+        this.checksPerRound = Math.max(1, checksPerRound);
+        this.roundMillis = Math.max(1, roundMillis);
+        this.onlineIntervalMillis = onlineIntervalMillis;
+        this.offlineIntervalMillis = offlineIntervalMillis;
+    }
+
+    public void online(UUID playerId) {
+        online.add(playerId);
+    }
+
+    public void offline(UUID playerId) {
+        online.remove(playerId);
+    }
+
+    public int checking() {
+        return checking.size();
+    }
+
+    /** Starts this round's checks; called from one async timer. */
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        List<VerifiedPlayerStore.Entry> due = new ArrayList<>(checksPerRound);
+        for (UUID playerId : online) {
+            if (due.size() >= checksPerRound) break;
+            collect(playerId, onlineIntervalMillis, now, due);
+        }
+
+        // At most one pass over the store per round, resuming where the last round stopped
+        int budget = store.size();
+        while (due.size() < checksPerRound && budget-- > 0) {
+            if (!offlineCursor.hasNext()) {
+                offlineCursor = verifiedIds().iterator();
+                if (!offlineCursor.hasNext()) break;
+            }
+            UUID playerId = offlineCursor.next();
+            if (!online.contains(playerId)) {
+                collect(playerId, offlineIntervalMillis, now, due);
+            }
+        }
+
+        for (VerifiedPlayerStore.Entry entry : due) {
+            long offset = ThreadLocalRandom.current().nextLong(roundMillis);
+            // The check only enqueues an HTTP call, so it can run on the delay thread itself
+            Executor delayed = CompletableFuture.delayedExecutor(offset, TimeUnit.MILLISECONDS, Runnable::run);
+            delayed.execute(() -> check(entry));
+        }
+    }
+
+    /**
+     * Main thread: up to {@code max} records found revoked since the last call, as they were when
+     * checked, so callers can skip players who verified again in the meantime.
+     */
+    public List<VerifiedPlayerStore.Entry> drainRevoked(int max) {
+        List<VerifiedPlayerStore.Entry> batch = new ArrayList<>();
+        VerifiedPlayerStore.Entry entry;
+        while (batch.size() < max && (entry = revoked.poll()) != null) {
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    private List<UUID> verifiedIds() {
+        List<UUID> ids = new ArrayList<>(store.size());
+        for (VerifiedPlayerStore.Entry entry : store.entries()) {
+            if (entry.verified) ids.add(entry.getUniqueId());
+        }
+        return ids;
+    }
+
+    private void collect(UUID playerId, long intervalMillis, long now, List<VerifiedPlayerStore.Entry> due) {
+        VerifiedPlayerStore.Entry entry = store.get(playerId);
+        if (entry == null || !entry.verified || checking.contains(playerId)) return;
+
+        // A fresh verification counts as a check
+        long last = Math.max(lastChecked.getOrDefault(playerId, 0L), entry.updatedAt);
+        if (now - last >= intervalMillis && checking.add(playerId)) {
+            due.add(entry);
+        }
+    }
+
+    private void check(VerifiedPlayerStore.Entry entry) {
+        UUID playerId = entry.getUniqueId();
+        CompletableFuture<Result> result;
+        try {
+            result = checker.apply(entry);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((outcome, error) -> {
+            checking.remove(playerId);
+            // Errors (agent down, bulkhead full) leave the player due, so a later round retries
+            if (error != null) return;
+            lastChecked.put(playerId, System.currentTimeMillis());
+            if (outcome == Result.REVOKED) {
+                revoked.add(entry);
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.ssi.verification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live verification sessions, one per player, indexed by every identifier the agent reports events
+ * under. A player is reserved while their invitation is being created, so a second /verify in that
+ * window is turned away instead of starting a parallel session.
+ */
+public class SessionRegistry {
+
+    private final ConcurrentHashMap<UUID, VerificationSession> byPlayer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VerificationSession> byConnection = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VerificationSession> byProofExchange = new ConcurrentHashMap<>();
+    private final Set<UUID> reserved = ConcurrentHashMap.newKeySet();
+
+    /** Claims the player for a new session; false if they already have one or one is being created. */
+    public boolean reserve(UUID playerId) {
+        return !byPlayer.containsKey(playerId) && reserved.add(playerId);
+    }
+
+    public void release(UUID playerId) {
+        reserved.remove(playerId);
+    }
+
+    /** Registers the session and ends the reservation. Returns a session it replaced, if any. */
+    public VerificationSession register(VerificationSession session) {
+        VerificationSession previous = byPlayer.put(session.getPlayerId(), session);
+        byConnection.put(session.getConnectionId(), session);
+        reserved.remove(session.getPlayerId());
+        return previous;
+    }
+
+    public void bindProofExchange(VerificationSession session, String proofExchangeId) {
+        byProofExchange.put(proofExchangeId, session);
+    }
+
+    public VerificationSession forPlayer(UUID playerId) {
+        return byPlayer.get(playerId);
+    }
+
+    public VerificationSession forConnection(String connectionId) {
+        return connectionId != null ? byConnection.get(connectionId) : null;
+    }
+
+    public VerificationSession forProofExchange(String proofExchangeId) {
+        return proofExchangeId != null ? byProofExchange.get(proofExchangeId) : null;
+    }
+
+    /** Drops every index entry for the session and cancels its pending task. */
+    public void remove(VerificationSession session) {
+        session.cancelTask();
+        byPlayer.remove(session.getPlayerId(), session);
+        byConnection.remove(session.getConnectionId(), session);
+        if (session.getProofExchangeId() != null) {
+            byProofExchange.remove(session.getProofExchangeId(), session);
+        }
+    }
+
+    public Collection<VerificationSession> sessions() {
+        return byPlayer.values();
+    }
+
+    public int size() {
+        return byPlayer.size();
+    }
+
+    public int reservedCount() {
+        return reserved.size();
+    }
+
+    public int pendingTasks() {
+        int pending = 0;
+        for (VerificationSession session : byPlayer.values()) {
+            if (session.hasPendingTask()) pending++;
+        }
+        return pending;
+    }
+
+    /** Empties the registry, cancelling every pending task; returns what was live. */
+    public List<VerificationSession> clear() {
+        List<VerificationSession> live = new ArrayList<>(byPlayer.values());
+        live.forEach(VerificationSession::cancelTask);
+        byPlayer.clear();
+        byConnection.clear();
+        byProofExchange.clear();
+        reserved.clear();
+        return live;
+    }
+}
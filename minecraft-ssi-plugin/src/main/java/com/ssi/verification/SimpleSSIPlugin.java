@@ -2,53 +2,185 @@ package com.ssi.verification;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.WriterException;
+import com.ssi.verification.VerificationSession.State;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import okhttp3.*;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.MapMeta;
-import org.bukkit.map.MapCanvas;
-import org.bukkit.map.MapRenderer;
 import org.bukkit.map.MapView;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
 
-public class SimpleSSIPlugin extends JavaPlugin {
+public class SimpleSSIPlugin extends JavaPlugin implements Listener {
     
-    private OkHttpClient httpClient;
+    private AgentClient agentClient;
     private Gson gson;
     private String acapyAdminUrl;
     private String credentialDefinitionId;
-    private final ConcurrentHashMap<String, Boolean> verifiedPlayers = new ConcurrentHashMap<>();
+    private VerifiedPlayerStore verifiedPlayers;
+    
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final ProofExchangeIndex proofIndex = new ProofExchangeIndex();
+    
+    private static final long CONNECTION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long PROOF_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(3);
+    private static final long RECHECK_POLL_TICKS = 100L;
+    private long sessionMaxAgeMillis;
+    
+    private WebhookServer webhookServer;
+    private QRCodeCache qrCodeCache;
+    private RestrictionCache restrictionCache;
+    private AdmissionQueue admissionQueue;
+    private InvitationPool invitationPool;
+    private long pollInitialTicks;
+    private long pollMaxTicks;
+    private double pollBackoff;
+    private double pollJitter;
+    private int pollBatchThreshold;
+    private volatile boolean batchConnectionPolls;
+    private PollScheduler<VerificationSession> pollScheduler;
+    
+    private VerificationLog log;
+    private final Metrics metrics = new Metrics();
+    private MetricsServer metricsServer;
+    private VerifiedBenefits benefits;
+    private VerificationReplicator replicator;
+    private RevocationSweeper revocationSweeper;
+    private int revocationsPerTick;
+    private RestrictionCache recheckRestrictions;
+    private long recheckTimeoutMillis;
+    private Metrics.Counter verificationsRevoked;
+    private Metrics.Counter verificationsStarted;
+    private Metrics.Histogram mapRenderTime;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         
+        log = new VerificationLog(getLogger(),
+            VerificationLog.parseLevel(getConfig().getString("logging.level", "INFO"), Level.INFO),
+            getConfig().getInt("logging.async-queue-size", 4096),
+            getConfig().getInt("logging.rate-limit-per-minute", 30),
+            getConfig().getInt("logging.poll-sample-every", 20));
+        log.start();
+        
         acapyAdminUrl = getConfig().getString("acapy.admin-url", "http://localhost:8021");
         credentialDefinitionId = getConfig().getString("acapy.credential-definition-id", "");
         
-        httpClient = new OkHttpClient.Builder()
-            .connectTimeout(10, TimeUnit.SECONDS)
-            .readTimeout(30, TimeUnit.SECONDS)
-            .build();
+        AgentClient.Settings httpSettings = new AgentClient.Settings();
+        httpSettings.connectTimeoutSeconds = getConfig().getLong("http.connect-timeout-seconds", 10L);
+        httpSettings.readTimeoutSeconds = getConfig().getLong("http.read-timeout-seconds", 30L);
+        httpSettings.maxRequests = Math.max(1, getConfig().getInt("http.max-requests", 64));
+        httpSettings.maxRequestsPerHost = Math.max(1, getConfig().getInt("http.max-requests-per-host", 16));
+        httpSettings.maxInvitationCalls = getConfig().getInt("http.bulkhead.invitation", 8);
+        httpSettings.maxConnectionCalls = getConfig().getInt("http.bulkhead.connection", 8);
+        httpSettings.maxProofCalls = getConfig().getInt("http.bulkhead.proof", 8);
+        httpSettings.failureThreshold = getConfig().getInt("http.circuit-breaker.failure-threshold", 5);
+        httpSettings.openSeconds = getConfig().getLong("http.circuit-breaker.open-seconds", 10L);
+        httpSettings.maxOpenSeconds = getConfig().getLong("http.circuit-breaker.max-open-seconds", 120L);
+        httpSettings.agentHealthPath = getConfig().getString("http.circuit-breaker.agent-health-path", "/status/live");
+        httpSettings.verifierHealthPath = getConfig().getString("http.circuit-breaker.verifier-health-path", "/");
+        agentClient = new AgentClient(acapyAdminUrl,
+            getConfig().getString("verifier.url", "http://localhost:4002"), httpSettings);
+        agentClient.setMetrics(metrics);
+        // One line per transition instead of one per failed call
+        agentClient.setCircuitListener((breaker, state) -> {
+            if (state == CircuitBreaker.State.OPEN) {
+                log.warning("circuit.open", "service", breaker.getName(), "retry_ms", breaker.retryInMillis());
+            } else if (state == CircuitBreaker.State.CLOSED) {
+                log.info("circuit.closed", "service", breaker.getName());
+            }
+        });
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, agentClient::probe, 20L, 20L);
         
         gson = new Gson();
+        openVerifiedPlayerStore();
+        qrCodeCache = new QRCodeCache(Math.max(1, getConfig().getInt("qrcode.cache-size", 256)));
+        
+        startWebhookServer();
+        startPollScheduler();
+        
+        if (getConfig().getBoolean("invitation-pool.enabled", true)) {
+            invitationPool = new InvitationPool(
+                () -> fetchInvitation("Minecraft-Server", "minecraft-pooled-invitation"),
+                this::discardInvitation,
+                Math.max(0, getConfig().getInt("invitation-pool.min-size", 4)),
+                Math.max(1, getConfig().getInt("invitation-pool.max-size", 64)),
+                Math.max(1, getConfig().getInt("invitation-pool.max-concurrent-fills", 4)),
+                TimeUnit.SECONDS.toMillis(getConfig().getLong("invitation-pool.max-age-seconds", 600L)),
+                getLogger());
+            long refillTicks = Math.max(20L, getConfig().getLong("invitation-pool.refill-interval-ticks", 100L));
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, invitationPool::tick, 20L, refillTicks);
+        }
+        
+        if (getConfig().getBoolean("bulk-mode.enabled", true)) {
+            admissionQueue = new AdmissionQueue(
+                Math.max(1, getConfig().getInt("bulk-mode.max-concurrent-invitations", 8)),
+                Math.max(1, getConfig().getInt("bulk-mode.max-queue-size", 1000)));
+            long updateTicks = Math.max(1L, getConfig().getLong("bulk-mode.position-update-ticks", 40L));
+            Bukkit.getScheduler().runTaskTimer(this, this::broadcastQueuePositions, updateTicks, updateTicks);
+        }
+        
+        if ("acapy".equalsIgnoreCase(getConfig().getString("verification.proof-request-via", "verifier"))) {
+            long ttlSeconds = Math.max(1L, getConfig().getLong("restrictions.cache-ttl-seconds", 300L));
+            restrictionCache = new RestrictionCache(this::buildFlexibleRestrictions, this::buildPresentationRequest,
+                TimeUnit.SECONDS.toMillis(ttlSeconds),
+                TimeUnit.SECONDS.toMillis(getConfig().getLong("restrictions.max-stale-seconds", 3600L)));
+            
+            // Refresh in the background so proof requests normally hit a warm cache
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, restrictionCache::refresh, 0L, ttlSeconds * 20L);
+        }
+        
+        registerMetrics();
+        startMetricsServer();
+        
+        // Timeouts and the lifetime cap are enforced here, so sessions end even when nothing polls them
+        sessionMaxAgeMillis = TimeUnit.SECONDS.toMillis(Math.max(60L, getConfig().getLong("sessions.max-age-seconds", 600L)));
+        long sweepTicks = Math.max(20L, getConfig().getLong("sessions.sweep-interval-ticks", 100L));
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::sweepSessions, sweepTicks, sweepTicks);
+        getServer().getPluginManager().registerEvents(this, this);
+        
+        benefits = VerifiedBenefits.fromConfig(this, getConfig().getConfigurationSection("settings.verified-benefits"));
+        benefits.start();
+        getServer().getPluginManager().registerEvents(benefits, this);
+        metrics.gauge("ssi_benefits_queued", "Verified players waiting for their benefits to be applied", benefits::queued);
+        startReplication();
+        startRevocationSweep();
+        
+        // One shared refresh serves every session still waiting for its pres_ex_id
+        long indexInterval = getConfig().getLong("proof-index.refresh-interval-ticks", 60L);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::refreshProofIndex, indexInterval, indexInterval);
         
         // Note: Credential definition ID is no longer required for flexible verification
         // The plugin now accepts credentials from any issuer with required attributes
@@ -56,11 +188,358 @@ public class SimpleSSIPlugin extends JavaPlugin {
         getLogger().info("Simple SSI Plugin enabled! Using flexible attribute-only verification.");
     }
     
+    @Override
+    public void onDisable() {
+        if (replicator != null) {
+            replicator.stop();
+            replicator = null;
+        }
+        if (benefits != null) {
+            benefits.stop();
+            benefits = null;
+        }
+        if (verifiedPlayers != null) {
+            verifiedPlayers.close();
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
+        }
+        if (webhookServer != null) {
+            webhookServer.stop();
+            webhookServer = null;
+        }
+        if (pollScheduler != null) {
+            pollScheduler.stop();
+            pollScheduler = null;
+        }
+        // Pending polls are cancelled here so nothing keeps a reference to finished sessions
+        for (VerificationSession session : sessions.clear()) {
+            proofIndex.unwatch(session.getConnectionId());
+        }
+        if (agentClient != null) {
+            // Unused pooled invitations would otherwise stay behind as connection records on the agent
+            if (invitationPool != null) {
+                invitationPool.clear();
+                invitationPool = null;
+                agentClient.awaitIdle(3000L);
+            }
+            agentClient.shutdown();
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+    
+    private void openVerifiedPlayerStore() {
+        String type = getConfig().getString("database.type", "file");
+        if (!"file".equalsIgnoreCase(type)) {
+            getLogger().warning("Unsupported database type '" + type + "', using the append-only file store");
+        }
+        
+        File file = new File(getConfig().getString("database.file", "verified-players.log"));
+        if (!file.isAbsolute()) {
+            file = new File(getDataFolder(), file.getPath());
+        }
+        
+        verifiedPlayers = new VerifiedPlayerStore(file,
+            Math.max(50L, getConfig().getLong("database.flush-interval-ms", 1000L)),
+            Math.max(1, getConfig().getInt("database.batch-size", 256)),
+            getLogger());
+        try {
+            verifiedPlayers.load();
+            getLogger().info("Loaded " + verifiedPlayers.size() + " verification records from " + file.getName());
+        } catch (IOException e) {
+            getLogger().severe("Failed to read verification records, starting empty: " + e.getMessage());
+        }
+    }
+    
+    // Shares the verified store with the other backends behind the proxy
+    private void startReplication() {
+        if (!getConfig().getBoolean("replication.enabled", false)) return;
+        
+        String serverId = getConfig().getString("replication.server-id", "");
+        if (serverId == null || serverId.isBlank()) {
+            String ip = getServer().getIp();
+            serverId = (ip.isEmpty() ? "localhost" : ip) + ":" + getServer().getPort();
+        }
+        verifiedPlayers.setOrigin(serverId);
+        
+        String type = getConfig().getString("replication.transport", "plugin-message");
+        String secret = getConfig().getString("replication.secret", "");
+        if (secret == null || secret.isBlank()) {
+            getLogger().warning("replication.secret is not set; replication stays off so unsigned records cannot be injected");
+            return;
+        }
+        try {
+            VerificationReplicator.Transport transport;
+            if ("udp".equalsIgnoreCase(type)) {
+                List<InetSocketAddress> peers = new ArrayList<>();
+                for (String peer : getConfig().getStringList("replication.udp.peers")) {
+                    peers.add(UdpTransport.parseAddress(peer));
+                }
+                transport = new UdpTransport(
+                    UdpTransport.parseAddress(getConfig().getString("replication.udp.bind", "127.0.0.1:25700")),
+                    peers, getLogger());
+            } else {
+                transport = new PluginMessageTransport(this, getConfig().getString("replication.channel", "ssi:verification"));
+            }
+            
+            replicator = new VerificationReplicator(verifiedPlayers, transport, serverId,
+                TimeUnit.SECONDS.toMillis(Math.max(0L, getConfig().getLong("replication.resync-overlap-seconds", 300L))),
+                TimeUnit.SECONDS.toMillis(Math.max(0L, getConfig().getLong("replication.anti-entropy-interval-seconds", 60L))),
+                this::onReplicatedChange, secret, getLogger());
+            replicator.setMetrics(metrics);
+            replicator.start();
+            getLogger().info("Replicating verifications as '" + serverId + "' over " + type);
+        } catch (IOException | IllegalArgumentException e) {
+            getLogger().warning("Failed to start replication, verifications stay local to this server: " + e.getMessage());
+            replicator = null;
+        }
+    }
+    
+    private void startRevocationSweep() {
+        if (!getConfig().getBoolean("revocation.enabled", false)) return;
+        
+        long roundTicks = Math.max(20L, getConfig().getLong("revocation.interval-ticks", 200L));
+        revocationSweeper = new RevocationSweeper(verifiedPlayers, this::recheckVerification,
+            getConfig().getInt("revocation.checks-per-interval", 10),
+            roundTicks * 50L,
+            TimeUnit.MINUTES.toMillis(Math.max(1L, getConfig().getLong("revocation.online-recheck-minutes", 360L))),
+            TimeUnit.HOURS.toMillis(Math.max(1L, getConfig().getLong("revocation.offline-recheck-hours", 24L))));
+        revocationsPerTick = Math.max(1, getConfig().getInt("revocation.apply-per-tick", 50));
+        recheckTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(30L, getConfig().getLong("revocation.recheck-timeout-seconds", 300L)));
+        // Re-checks always go to ACA-Py directly, so they need the agent's restrictions even in verifier mode
+        recheckRestrictions = restrictionCache != null ? restrictionCache
+            : new RestrictionCache(this::buildFlexibleRestrictions, this::buildPresentationRequest,
+                TimeUnit.SECONDS.toMillis(Math.max(1L, getConfig().getLong("restrictions.cache-ttl-seconds", 300L))),
+                TimeUnit.SECONDS.toMillis(getConfig().getLong("restrictions.max-stale-seconds", 3600L)));
+        verificationsRevoked = metrics.counter("ssi_verifications_revoked_total", "Stored verifications withdrawn by the revocation sweep");
+        metrics.gauge("ssi_revocation_checks_in_flight", "Re-verification checks waiting on the agent", revocationSweeper::checking);
+        
+        // Covers /reload, where nobody joins again
+        Bukkit.getOnlinePlayers().forEach(player -> revocationSweeper.online(player.getUniqueId()));
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+            // Nothing to learn while the agent is down; the round is skipped rather than failed
+            if (agentClient.openCircuit() == null) revocationSweeper.sweep();
+        }, roundTicks, roundTicks);
+        Bukkit.getScheduler().runTaskTimer(this, this::applyRevocations, 20L, 20L);
+    }
+    
+    // A fresh proof request over the stored connection, asking for non-revocation as of now. The
+    // holder's wallet has to answer it; unanswered or declined requests say nothing about revocation.
+    private CompletableFuture<RevocationSweeper.Result> recheckVerification(VerifiedPlayerStore.Entry entry) {
+        String connectionId = entry.connectionId;
+        if (connectionId == null) {
+            return CompletableFuture.completedFuture(RevocationSweeper.Result.UNKNOWN);
+        }
+        
+        return recheckRestrictions.get()
+            .thenCompose(snapshot -> agentClient.sendRevocationCheck(connectionId,
+                withNonRevoked(snapshot.presentationRequest(), System.currentTimeMillis() / 1000L)))
+            .thenCompose(response -> {
+                String proofExchangeId = stringField(response, "pres_ex_id");
+                if (proofExchangeId == null) {
+                    return CompletableFuture.completedFuture(RevocationSweeper.Result.UNKNOWN);
+                }
+                sendMessage(entry.getUniqueId(), Component.text(
+                    "Your wallet has received a re-verification request - approve it to stay verified.", NamedTextColor.GOLD));
+                return awaitRecheck(proofExchangeId, System.currentTimeMillis() + recheckTimeoutMillis);
+            })
+            .exceptionally(error -> {
+                // The connection is gone or the agent refused the request; this record cannot be re-checked
+                Throwable cause = unwrap(error);
+                if (cause instanceof AgentClient.AgentException agentError && agentError.getStatus() < 500) {
+                    return RevocationSweeper.Result.UNKNOWN;
+                }
+                throw new CompletionException(cause);
+            });
+    }
+    
+    private static String withNonRevoked(String presentationRequest, long nowSeconds) {
+        JsonObject request = JsonParser.parseString(presentationRequest).getAsJsonObject();
+        JsonObject interval = new JsonObject();
+        interval.addProperty("from", nowSeconds);
+        interval.addProperty("to", nowSeconds);
+        request.getAsJsonObject("indy").add("non_revoked", interval);
+        return request.toString();
+    }
+    
+    // Polls the re-check record until the exchange finishes or the deadline passes, then deletes it
+    private CompletableFuture<RevocationSweeper.Result> awaitRecheck(String proofExchangeId, long deadline) {
+        CompletableFuture<RevocationSweeper.Result> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskLaterAsynchronously(this, () ->
+            agentClient.getProofRecord(proofExchangeId).whenComplete((record, error) -> {
+                String state = error == null ? stringField(record, "state") : null;
+                boolean finished = "done".equals(state) || "abandoned".equals(state);
+                boolean retry = error == null || isRetryable(unwrap(error));
+                if (!finished && retry && System.currentTimeMillis() < deadline) {
+                    awaitRecheck(proofExchangeId, deadline).thenAccept(result::complete);
+                    return;
+                }
+                
+                agentClient.deleteProofRecord(proofExchangeId).exceptionally(ignored -> null);
+                result.complete(finished ? recheckVerdict(record) : RevocationSweeper.Result.UNKNOWN);
+            }), RECHECK_POLL_TICKS);
+        return result;
+    }
+    
+    // A presentation that fails verification against a non-revoked interval no longer holds; an
+    // abandoned exchange only means the holder declined or the protocol failed
+    private static RevocationSweeper.Result recheckVerdict(JsonObject record) {
+        if (!"done".equals(stringField(record, "state"))) return RevocationSweeper.Result.UNKNOWN;
+        String verified = stringField(record, "verified");
+        if ("true".equals(verified)) return RevocationSweeper.Result.VALID;
+        return "false".equals(verified) ? RevocationSweeper.Result.REVOKED : RevocationSweeper.Result.UNKNOWN;
+    }
+    
+    // Main thread, a bounded batch per second; also replicated to other servers through the store
+    private void applyRevocations() {
+        for (VerifiedPlayerStore.Entry checked : revocationSweeper.drainRevoked(revocationsPerTick)) {
+            UUID playerId = checked.getUniqueId();
+            // Verified again (or already revoked) since the check
+            if (verifiedPlayers.get(playerId) != checked) continue;
+            verifiedPlayers.revoke(playerId);
+            verificationsRevoked.increment();
+            log.info("verification.revoked", "player", playerId);
+            
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                benefits.revoke(player);
+                player.sendMessage(Component.text("Your verification is no longer valid. Use /verify to verify again.", NamedTextColor.RED));
+            }
+        }
+    }
+    
+    // Another backend verified or revoked this player; only matters here if they are online
+    private void onReplicatedChange(VerifiedPlayerStore.Entry entry) {
+        UUID playerId = entry.getUniqueId();
+        if (entry.verified) {
+            benefits.grant(playerId);
+            return;
+        }
+        Bukkit.getScheduler().runTask(this, () -> {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) benefits.revoke(player);
+        });
+    }
+    
+    private void startWebhookServer() {
+        boolean webhooksEnabled = getConfig().getBoolean("webhook.enabled", true);
+        
+        // Polling is only a safety net when the agent pushes events, so it starts slower
+        pollInitialTicks = webhooksEnabled
+            ? getConfig().getLong("polling.webhook-fallback-interval-ticks", 200L)
+            : getConfig().getLong("polling.initial-interval-ticks", 60L);
+        pollMaxTicks = Math.max(pollInitialTicks, getConfig().getLong("polling.max-interval-ticks", 600L));
+        pollBackoff = Math.max(1.0, getConfig().getDouble("polling.backoff-multiplier", 1.5));
+        
+        if (!webhooksEnabled) {
+            getLogger().info("Webhook receiver disabled, falling back to polling every " + pollInitialTicks + " ticks");
+            return;
+        }
+        
+        String host = getConfig().getString("webhook.host", "127.0.0.1");
+        int port = getConfig().getInt("webhook.port", 8095);
+        String path = getConfig().getString("webhook.path", "/webhooks");
+        String apiKey = getConfig().getString("webhook.api-key", "");
+        
+        try {
+            // Anyone who can reach the receiver can post events, so off loopback it needs a key
+            if (apiKey.isEmpty() && !InetAddress.getByName(host).isLoopbackAddress()) {
+                throw new IllegalStateException("webhook.api-key is required when webhook.host is not a loopback address");
+            }
+            webhookServer = new WebhookServer(host, port, path, apiKey, this::handleWebhook, getLogger());
+            webhookServer.start();
+            getLogger().info("Listening for ACA-Py webhooks on http://" + host + ":" + port + path);
+        } catch (Exception e) {
+            getLogger().warning("Failed to start webhook receiver, using polling only: " + e.getMessage());
+            webhookServer = null;
+            pollInitialTicks = getConfig().getLong("polling.initial-interval-ticks", 60L);
+        }
+    }
+    
+    // One timer thread for every session's polls; sessions due in the same slot are polled as a batch
+    private void startPollScheduler() {
+        pollJitter = Math.min(0.5, Math.max(0.0, getConfig().getDouble("polling.jitter", 0.2)));
+        pollBatchThreshold = Math.max(2, getConfig().getInt("polling.batch-threshold", 4));
+        batchConnectionPolls = getConfig().getBoolean("polling.batch-connections", true);
+        
+        pollScheduler = new PollScheduler<>(
+            Math.max(10L, getConfig().getLong("polling.wheel-tick-ms", 50L)),
+            Math.max(16, getConfig().getInt("polling.wheel-slots", 512)),
+            this::pollBatch, getLogger());
+        pollScheduler.start();
+    }
+    
+    private void registerMetrics() {
+        verificationsStarted = metrics.counter("ssi_verifications_started_total", "Verification sessions started");
+        mapRenderTime = metrics.histogram("ssi_map_render_seconds",
+            "Main-thread time spent in QR MapRenderer.render", Metrics.LATENCY_BUCKETS);
+        for (State terminal : new State[] {State.VERIFIED, State.REJECTED, State.TIMED_OUT, State.CANCELLED}) {
+            outcomeCounter(terminal);
+        }
+        
+        metrics.gauge("ssi_sessions_in_flight", "Verification sessions not yet finished", sessions::size);
+        metrics.gauge("ssi_sessions_reserved", "Players whose invitation is still being created", sessions::reservedCount);
+        metrics.gauge("ssi_polling_tasks", "Status polls scheduled but not yet run", sessions::pendingTasks);
+        metrics.gauge("ssi_poll_wheel_timeouts", "Timeouts held by the polling wheel, cancelled ones until reaped",
+            pollScheduler::pendingCount);
+        metrics.gauge("ssi_agent_requests_in_flight", "Agent HTTP calls running or queued", agentClient::inFlight);
+        metrics.gauge("ssi_verified_players", "Players with a stored verification", verifiedPlayers::size);
+        for (CircuitBreaker breaker : agentClient.circuits()) {
+            metrics.gauge("ssi_" + breaker.getName() + "_circuit_state", "Circuit state of the " + breaker.getName()
+                + " (0 closed, 1 open, 2 half-open)", () -> breaker.getState().ordinal());
+        }
+        if (admissionQueue != null) {
+            metrics.gauge("ssi_admission_queue_waiting", "Players queued for an invitation in bulk mode",
+                admissionQueue::waitingCount);
+            metrics.gauge("ssi_admission_queue_running", "Invitations being created for admitted players",
+                admissionQueue::runningCount);
+        }
+        if (invitationPool != null) {
+            metrics.gauge("ssi_invitation_pool_ready", "Pre-created invitations ready to hand out", invitationPool::size);
+        }
+    }
+    
+    private Metrics.Counter outcomeCounter(State terminal) {
+        return switch (terminal) {
+            case VERIFIED -> metrics.counter("ssi_verifications_completed_total", "Verifications completed successfully");
+            case REJECTED -> metrics.counter("ssi_verifications_rejected_total", "Verifications rejected, abandoned or failed");
+            case CANCELLED -> metrics.counter("ssi_verifications_cancelled_total", "Verifications dropped because the player left");
+            default -> metrics.counter("ssi_verifications_timed_out_total", "Verifications that timed out");
+        };
+    }
+    
+    private Metrics.Histogram stageHistogram(String stage) {
+        return metrics.histogram("ssi_verification_stage_seconds",
+            "Time spent per verification stage", Metrics.STAGE_BUCKETS, "stage", stage);
+    }
+    
+    private void startMetricsServer() {
+        if (!getConfig().getBoolean("metrics.enabled", true)) return;
+        
+        String host = getConfig().getString("metrics.host", "127.0.0.1");
+        int port = getConfig().getInt("metrics.port", 9464);
+        String path = getConfig().getString("metrics.path", "/metrics");
+        metricsServer = new MetricsServer(host, port, path, metrics);
+        try {
+            metricsServer.start();
+            getLogger().info("Serving metrics on http://" + host + ":" + port + path);
+        } catch (IOException e) {
+            getLogger().warning("Failed to start metrics endpoint: " + e.getMessage());
+            metricsServer = null;
+        }
+    }
+    
     // Credential definition discovery is no longer needed for flexible verification
     // The plugin now accepts any credential containing required attributes (department, age)
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if ("ssiadmin".equals(command.getName())) {
+            return handleAdmin(sender, args);
+        }
         if (!(sender instanceof Player player)) return true;
         
         if ("verify".equals(command.getName())) {
@@ -75,94 +554,154 @@ public class SimpleSSIPlugin extends JavaPlugin {
     }
     
     private void handleVerify(Player player) {
-        if (verifiedPlayers.getOrDefault(player.getName(), false)) {
+        UUID playerId = player.getUniqueId();
+        if (verifiedPlayers.isVerified(playerId)) {
             player.sendMessage(Component.text("✓ Already verified!", NamedTextColor.GREEN));
             return;
         }
         
-        player.sendMessage(Component.text("Creating QR code...", NamedTextColor.YELLOW));
-        CompletableFuture.runAsync(() -> createVerification(player));
+        if (sessions.forPlayer(playerId) != null) {
+            player.sendMessage(Component.text("Verification already in progress - scan the QR map in your inventory.", NamedTextColor.GOLD));
+            return;
+        }
+        CircuitBreaker open = agentClient.openCircuit();
+        if (open != null) {
+            long seconds = Math.max(1, (open.retryInMillis() + 999) / 1000);
+            player.sendMessage(Component.text("Verification is temporarily unavailable (the " + open.getName()
+                + " is not responding). Please try again in " + seconds + "s.", NamedTextColor.RED));
+            return;
+        }
+        if (!sessions.reserve(playerId)) {
+            player.sendMessage(Component.text("Your QR code is still being created...", NamedTextColor.YELLOW));
+            return;
+        }
+        
+        InvitationPool.Invitation pooled = invitationPool != null ? invitationPool.poll() : null;
+        if (pooled != null) {
+            startSession(playerId, pooled);
+            return;
+        }
+        
+        String name = player.getName();
+        if (admissionQueue == null) {
+            player.sendMessage(Component.text("Creating QR code...", NamedTextColor.YELLOW));
+            createVerification(playerId, name);
+            return;
+        }
+        
+        // Bulk mode: only a bounded number of invitations are created at once, in arrival order
+        int position = admissionQueue.submit(playerId, () -> {
+            if (Bukkit.getPlayer(playerId) != null) return createVerification(playerId, name);
+            sessions.release(playerId);
+            return CompletableFuture.completedFuture(null);
+        });
+        if (position == AdmissionQueue.STARTED) {
+            player.sendMessage(Component.text("Creating QR code...", NamedTextColor.YELLOW));
+        } else if (position == AdmissionQueue.REJECTED) {
+            sessions.release(playerId);
+            player.sendMessage(Component.text("Verification queue is full, please try again in a minute.", NamedTextColor.RED));
+        } else {
+            player.sendMessage(Component.text("Verification is busy - you are #" + position + " in the queue.", NamedTextColor.GOLD));
+        }
     }
     
-    private void createVerification(Player player) {
-        try {
-            getLogger().info("Creating verification for player: " + player.getName());
-            
-            // Use ssi-tutorial verifier API (simple approach)
-            JsonObject request = new JsonObject();
-            request.addProperty("label", "Minecraft-Server-" + player.getName());
-            request.addProperty("alias", "minecraft-player-" + player.getName());
+    // Expired pooled invitations are removed on the agent so unused connection records don't pile up
+    private void discardInvitation(InvitationPool.Invitation invitation) {
+        agentClient.deleteConnection(invitation.connectionId()).exceptionally(error -> {
+            log.fine("invitation.delete-failed", "connection", invitation.connectionId(), "error", unwrap(error).getMessage());
+            return null;
+        });
+    }
+    
+    private void broadcastQueuePositions() {
+        Map<UUID, Integer> positions = admissionQueue.positions();
+        int total = positions.size();
+        positions.forEach((uuid, position) -> {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                admissionQueue.cancel(uuid);
+                sessions.release(uuid);
+                return;
+            }
+            player.sendActionBar(Component.text("Verification queue: #" + position + " of " + total, NamedTextColor.GOLD));
+        });
+    }
+    
+    // Only the UUID and name are captured, so a slow agent call never holds on to the Player
+    private CompletableFuture<Void> createVerification(UUID playerId, String playerName) {
+        log.trace(playerId.toString(), null, "verification.create", "player", playerName);
+        
+        return fetchInvitation("Minecraft-Server-" + playerName, "minecraft-player-" + playerName)
+            .thenAccept(invitation -> Bukkit.getScheduler().runTask(this, () -> startSession(playerId, invitation)))
+            .exceptionally(error -> {
+                sessions.release(playerId);
+                Throwable cause = unwrap(error);
+                log.severe("verification.failed", "player", playerName, "error", cause.getMessage());
+                if (cause instanceof AgentClient.CircuitOpenException || cause instanceof AgentClient.BulkheadFullException) {
+                    sendMessage(playerId, Component.text("Verification is temporarily unavailable, please try again shortly.", NamedTextColor.RED));
+                } else if (cause instanceof AgentClient.AgentException) {
+                    sendMessage(playerId, Component.text("Failed to create invitation: " + cause.getMessage(), NamedTextColor.RED));
+                } else if (cause instanceof WriterException) {
+                    sendMessage(playerId, Component.text("Failed to create QR code", NamedTextColor.RED));
+                } else if (cause instanceof IllegalStateException) {
+                    sendMessage(playerId, Component.text(cause.getMessage(), NamedTextColor.RED));
+                } else {
+                    sendMessage(playerId, Component.text("System error: " + cause.getMessage(), NamedTextColor.RED));
+                }
+                return null;
+            });
+    }
+    
+    // Creates an invitation and encodes its QR on the calling async thread
+    private CompletableFuture<InvitationPool.Invitation> fetchInvitation(String label, String alias) {
+        // Use ssi-tutorial verifier API (simple approach)
+        return agentClient.createInvitation(label, alias).thenApply(responseJson -> {
+            log.trace(null, stringField(responseJson, "connection_id"), "invitation.created",
+                "alias", alias, "response", responseJson);
             
-            RequestBody body = RequestBody.create(request.toString(), MediaType.get("application/json"));
-            Request httpRequest = new Request.Builder()
-                .url("http://localhost:4002/v2/create-invitation")
-                .post(body)
-                .build();
+            if (!responseJson.has("invitation_url")) {
+                throw new IllegalStateException("Invalid response from verification service");
+            }
             
-            try (Response response = httpClient.newCall(httpRequest).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "No response body";
-                getLogger().info("ACA-Py response: " + response.code() + " - " + responseBody);
-                
-                if (!response.isSuccessful()) {
-                    sendMessage(player, Component.text("Failed to create invitation: " + responseBody, NamedTextColor.RED));
-                    return;
-                }
-                
-                JsonObject responseJson = JsonParser.parseString(responseBody).getAsJsonObject();
-                
-                if (!responseJson.has("invitation_url")) {
-                    sendMessage(player, Component.text("Invalid response from verification service", NamedTextColor.RED));
-                    return;
-                }
-                
-                String invitationUrl = responseJson.get("invitation_url").getAsString();
-                String connectionId = responseJson.get("connection_id").getAsString();
-                getLogger().info("Generated invitation URL: " + invitationUrl);
-                getLogger().info("Connection ID: " + connectionId);
-                
-                // Give QR map
-                Bukkit.getScheduler().runTask(this, () -> {
-                    giveQRMap(player, invitationUrl);
-                    player.sendMessage(Component.text("✓ QR Code created! Scan with your SSI wallet.", NamedTextColor.GREEN));
-                });
-                
-                // Start monitoring this specific connection
-                monitorConnection(connectionId, player);
-                
+            String invitationUrl = responseJson.get("invitation_url").getAsString();
+            String connectionId = responseJson.get("connection_id").getAsString();
+            try {
+                return new InvitationPool.Invitation(connectionId, invitationUrl,
+                    qrCodeCache.get(invitationUrl), System.currentTimeMillis());
+            } catch (WriterException e) {
+                throw new CompletionException(e);
             }
-        } catch (Exception e) {
-            getLogger().severe("Verification failed for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            sendMessage(player, Component.text("System error: " + e.getMessage(), NamedTextColor.RED));
+        });
+    }
+    
+    // Main thread: everything here is in memory, so a pooled invitation reaches the player this tick
+    private void startSession(UUID playerId, InvitationPool.Invitation invitation) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null) {
+            sessions.release(playerId);
+            if (invitationPool != null) invitationPool.offer(invitation);
+            return;
         }
+        
+        // Track the session; webhooks drive it, polling only catches missed events
+        VerificationSession session = new VerificationSession(playerId, player.getName(), invitation.connectionId());
+        VerificationSession replaced = sessions.register(session);
+        if (replaced != null) finish(replaced, State.CANCELLED);
+        verificationsStarted.increment();
+        schedulePoll(session, pollInitialTicks);
+        
+        giveQRMap(player, invitation.qrPixels());
+        player.sendMessage(Component.text("✓ QR Code created! Scan with your SSI wallet.", NamedTextColor.GREEN));
     }
     
-    private void giveQRMap(Player player, String qrData) {
+    private void giveQRMap(Player player, byte[] qrPixels) {
         try {
-            QRCodeWriter qrWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrWriter.encode(qrData, BarcodeFormat.QR_CODE, 128, 128);
-            BufferedImage qrImage = MatrixToImageWriter.toBufferedImage(bitMatrix);
-            
             ItemStack mapItem = new ItemStack(Material.FILLED_MAP);
             MapMeta mapMeta = (MapMeta) mapItem.getItemMeta();
             
             MapView mapView = Bukkit.createMap(player.getWorld());
             mapView.getRenderers().clear();
-            
-            mapView.addRenderer(new MapRenderer() {
-                @Override
-                public void render(MapView map, MapCanvas canvas, Player player) {
-                    for (int x = 0; x < 128; x++) {
-                        for (int y = 0; y < 128; y++) {
-                            if (x < qrImage.getWidth() && y < qrImage.getHeight()) {
-                                int rgb = qrImage.getRGB(x, y);
-                                byte color = (rgb == -1) ? (byte) 0 : (byte) 119;
-                                canvas.setPixel(x, y, color);
-                            }
-                        }
-                    }
-                }
-            });
+            mapView.addRenderer(new QRMapRenderer(qrPixels, mapRenderTime));
             
             mapMeta.setMapView(mapView);
             mapMeta.setDisplayName("SSI Verification QR Code");
@@ -171,284 +710,476 @@ public class SimpleSSIPlugin extends JavaPlugin {
             player.getInventory().addItem(mapItem);
             
         } catch (Exception e) {
-            getLogger().warning("Failed to create QR map: " + e.getMessage());
+            log.warning("qr-map.failed", "player", player.getName(), "error", e.getMessage());
         }
     }
     
-    private void monitorConnection(String connectionId, Player player) {
-        final int[] taskId = new int[1];
-        
-        taskId[0] = Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
-            private int attempts = 0;
-            private boolean proofSent = false;
-            
-            @Override
-            public void run() {
-                attempts++;
-                
-                if (attempts > 40) { // 2 minutes timeout
-                    sendMessage(player, Component.text("Verification timeout", NamedTextColor.RED));
-                    Bukkit.getScheduler().cancelTask(taskId[0]);
-                    return;
+    private void handleWebhook(String topic, JsonObject payload) {
+        switch (topic) {
+            case "connections" -> {
+                VerificationSession session = sessions.forConnection(stringField(payload, "connection_id"));
+                if (session != null && isConnectionActive(payload)) {
+                    onConnectionActive(session);
                 }
-                
-                try {
-                    // Check specific connection status
-                    Request request = new Request.Builder()
-                        .url("http://localhost:4002/v2/connections?connectionId=" + connectionId)
-                        .build();
-                    
-                    try (Response response = httpClient.newCall(request).execute()) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String responseBody = response.body().string();
-                            getLogger().info("Connection status check #" + attempts);
-                            
-                            JsonObject connectionData = JsonParser.parseString(responseBody).getAsJsonObject();
-                            String state = connectionData.get("state").getAsString();
-                            
-                            if ("active".equals(state) && !proofSent) {
-                                proofSent = true;
-                                getLogger().info("Connection is active! Sending proof request...");
-                                
-                                sendMessage(player, Component.text("✓ Wallet connected! Sending proof request...", NamedTextColor.GREEN));
-                                
-                                // Remove QR map
-                                Bukkit.getScheduler().runTask(SimpleSSIPlugin.this, () -> removeQRMaps(player));
-                                
-                                // Send proof request
-                                sendProofRequest(connectionId, player);
-                                
-                                // Stop this monitoring task
-                                Bukkit.getScheduler().cancelTask(taskId[0]);
-                                return;
-                            }
-                        }
+            }
+            case "present_proof_v2_0" -> {
+                String proofExchangeId = stringField(payload, "pres_ex_id");
+                VerificationSession session = sessions.forProofExchange(proofExchangeId);
+                if (session == null) {
+                    session = sessions.forConnection(stringField(payload, "connection_id"));
+                }
+                if (session != null && proofExchangeId != null) {
+                    log.trace(playerId(session), session.getConnectionId(), "webhook.proof",
+                        "state", stringField(payload, "state"), "payload", payload);
+                    confirmProofState(session, proofExchangeId);
+                }
+            }
+            default -> { }
+        }
+    }
+    
+    // A webhook is only a hint: the state acted on is read back from the agent, and only for a
+    // record that belongs to the session's own connection
+    private void confirmProofState(VerificationSession session, String proofExchangeId) {
+        agentClient.getProofRecord(proofExchangeId).whenComplete((record, error) -> {
+            if (error != null) {
+                log.fine("webhook.proof-unconfirmed", "pres_ex_id", proofExchangeId, "error", unwrap(error).getMessage());
+                return;
+            }
+            if (!session.getConnectionId().equals(stringField(record, "connection_id"))) {
+                log.warning("webhook.proof-mismatch", "pres_ex_id", proofExchangeId, "connection", session.getConnectionId());
+                return;
+            }
+            proofIndex.update(record);
+            bindProofExchange(session, proofExchangeId);
+            onProofState(session, stringField(record, "state"));
+        });
+    }
+    
+    // The session holds the only handle, so scheduling again replaces (and cancels) any pending poll
+    private void schedulePoll(VerificationSession session, long delayTicks) {
+        session.setPollIntervalTicks(delayTicks);
+        // Jitter spreads sessions created in the same burst over neighbouring slots
+        double spread = 1.0 + pollJitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        session.replaceTask(pollScheduler.schedule(session, (long) (delayTicks * 50 * spread)));
+    }
+    
+    // Runs on the poll timer thread with every session due in this slot; agent calls are only enqueued here
+    private void pollBatch(List<VerificationSession> due) {
+        List<VerificationSession> awaitingConnection = new ArrayList<>();
+        List<VerificationSession> awaitingProof = new ArrayList<>();
+        for (VerificationSession session : due) {
+            State state = session.getState();
+            if (state == State.AWAITING_CONNECTION) {
+                awaitingConnection.add(session);
+            } else if (state == State.PROOF_REQUESTED) {
+                awaitingProof.add(session);
+            } else if (!state.isTerminal()) {
+                // Proof request still in flight; look again later
+                afterPoll(session, state, null);
+            }
+        }
+        
+        if (!awaitingConnection.isEmpty()) pollConnections(awaitingConnection);
+        if (!awaitingProof.isEmpty()) pollProofs(awaitingProof);
+    }
+    
+    private void pollConnections(List<VerificationSession> batch) {
+        if (batch.size() < pollBatchThreshold || !batchConnectionPolls) {
+            for (VerificationSession session : batch) {
+                pollConnection(session).whenComplete((ignored, error) -> afterPoll(session, State.AWAITING_CONNECTION, error));
+            }
+            return;
+        }
+        
+        // One listing of active connections answers the whole batch
+        agentClient.listConnections("active").whenComplete((response, error) -> {
+            if (error == null) {
+                Set<String> active = new HashSet<>();
+                JsonArray results = response.getAsJsonArray("results");
+                if (results != null) {
+                    for (JsonElement connection : results) {
+                        String connectionId = connection.isJsonObject()
+                            ? stringField(connection.getAsJsonObject(), "connection_id") : null;
+                        if (connectionId != null) active.add(connectionId);
                     }
-                } catch (Exception e) {
-                    getLogger().warning("Connection monitoring error: " + e.getMessage());
                 }
+                log.sampled(Level.FINE, "poll.connections", "batch", batch.size(), "active", active.size());
+                for (VerificationSession session : batch) {
+                    if (active.contains(session.getConnectionId())) onConnectionActive(session);
+                }
+            } else if (unwrap(error) instanceof AgentClient.AgentException agentError && agentError.getStatus() < 500) {
+                // The agent cannot list connections this way; stay with per-connection checks
+                log.info("poll.connection-batching-disabled", "status", agentError.getStatus());
+                batchConnectionPolls = false;
             }
-        }, 60L, 60L).getTaskId(); // Check every 3 seconds
+            for (VerificationSession session : batch) {
+                afterPoll(session, State.AWAITING_CONNECTION, error);
+            }
+        });
     }
     
-    private void sendProofRequest(String connectionId, Player player) {
-        try {
-            getLogger().info("Sending proof request for connection: " + connectionId);
-            
+    private void pollProofs(List<VerificationSession> batch) {
+        List<VerificationSession> byExchange = new ArrayList<>();
+        for (VerificationSession session : batch) {
+            if (session.getProofExchangeId() != null) {
+                byExchange.add(session);
+            } else {
+                // Covered by the shared proof index refresh
+                applyIndexedProofState(session);
+                afterPoll(session, State.PROOF_REQUESTED, null);
+            }
+        }
+        if (byExchange.isEmpty()) return;
+        
+        if (byExchange.size() < pollBatchThreshold) {
+            for (VerificationSession session : byExchange) {
+                pollProofStatus(session).whenComplete((ignored, error) -> afterPoll(session, State.PROOF_REQUESTED, error));
+            }
+            return;
+        }
+        
+        // Fold the batch into the proof index so a single records listing updates all of them
+        byExchange.forEach(session -> proofIndex.watch(session.getConnectionId()));
+        refreshProofIndex().whenComplete((ignored, error) -> {
+            for (VerificationSession session : byExchange) {
+                afterPoll(session, State.PROOF_REQUESTED, error);
+            }
+        });
+    }
+    
+    // The next poll is only scheduled once this one has answered, so a slow agent never stacks requests
+    private void afterPoll(VerificationSession session, State polledIn, Throwable error) {
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            // Refused locally; the open circuit was already logged once
+            boolean refused = cause instanceof AgentClient.CircuitOpenException || cause instanceof AgentClient.BulkheadFullException;
+            log.log(refused ? Level.FINE : Level.WARNING, "poll.failed", "connection", session.getConnectionId(), "error", cause.getMessage());
+        }
+        State state = session.getState();
+        if (state.isTerminal()) return;
+        
+        // Exponential backoff while nothing changes (or the agent errors); reset on progress
+        long next = state == polledIn
+            ? Math.min(pollMaxTicks, (long) Math.ceil(session.getPollIntervalTicks() * pollBackoff))
+            : pollInitialTicks;
+        schedulePoll(session, next);
+    }
+    
+    private CompletableFuture<Void> pollConnection(VerificationSession session) {
+        // Check specific connection status
+        return agentClient.getConnection(session.getConnectionId()).thenAccept(connectionData -> {
+            log.trace(playerId(session), session.getConnectionId(), "poll.connection",
+                "connection", session.getConnectionId(), "state", stringField(connectionData, "state"));
+            if (isConnectionActive(connectionData)) {
+                onConnectionActive(session);
+            }
+        });
+    }
+    
+    private void onConnectionActive(VerificationSession session) {
+        if (!session.transition(State.AWAITING_CONNECTION, State.CONNECTED)) return;
+        stageHistogram("connection").observeMillis(session.getConnectedAt() - session.getStartedAt());
+        
+        log.trace(playerId(session), session.getConnectionId(), "connection.active",
+            "player", session.getPlayerName(), "connection", session.getConnectionId());
+        sendMessage(session.getPlayerId(), Component.text("✓ Wallet connected! Sending proof request...", NamedTextColor.GREEN));
+        
+        // Remove QR map
+        Bukkit.getScheduler().runTask(this, () -> {
+            Player player = Bukkit.getPlayer(session.getPlayerId());
+            if (player != null) removeQRMaps(player);
+        });
+        
+        sendProofRequest(session);
+    }
+    
+    private void sendProofRequest(VerificationSession session) {
+        String connectionId = session.getConnectionId();
+        UUID player = session.getPlayerId();
+        
+        CompletableFuture<JsonObject> sent;
+        if (restrictionCache != null) {
+            // Flexible restrictions straight to ACA-Py, from the cached pre-serialized request
+            sent = restrictionCache.get()
+                .exceptionally(error -> {
+                    JsonArray fallback = fallbackRestrictions();
+                    return new RestrictionCache.Snapshot(fallback, buildPresentationRequest(fallback), 0L);
+                })
+                .thenCompose(snapshot -> agentClient.sendPresentationRequest(connectionId, snapshot.presentationRequest()));
+        } else {
             // Use ssi-tutorial verifier API approach (like in proof.controller.ts)
-            JsonObject proofRequest = new JsonObject();
-            proofRequest.addProperty("proofRequestlabel", "Minecraft Server Verification");
-            proofRequest.addProperty("connectionId", connectionId);
-            proofRequest.addProperty("version", "1.0");
+            sent = agentClient.sendProofRequest(connectionId, "Minecraft Server Verification");
+        }
+        
+        sent.thenAccept(responseJson -> {
+            log.trace(playerId(session), connectionId, "proof.requested", "connection", connectionId, "response", responseJson);
+            sendMessage(player, Component.text("Proof request sent! Please approve in your wallet.", NamedTextColor.YELLOW));
             
-            RequestBody body = RequestBody.create(proofRequest.toString(), MediaType.get("application/json"));
-            Request httpRequest = new Request.Builder()
-                .url("http://localhost:4002/v2/send-proof-request")
-                .post(body)
-                .build();
+            // Without a pres_ex_id the session is matched on connection_id instead
+            bindProofExchange(session, stringField(responseJson, "pres_ex_id"));
+            if (session.getProofExchangeId() == null) {
+                proofIndex.watch(connectionId);
+            }
+            session.transition(State.CONNECTED, State.PROOF_REQUESTED);
+        }).exceptionally(error -> {
+            Throwable cause = unwrap(error);
+            if (isRetryable(cause)) {
+                // The wallet is connected, so try again until the session's own timeout ends it
+                CircuitBreaker open = agentClient.openCircuit();
+                long delayTicks = (open != null ? Math.max(20L, open.retryInMillis() / 50L) : 20L)
+                    + ThreadLocalRandom.current().nextLong(20L);
+                log.fine("proof.request-deferred", "connection", connectionId, "error", cause.getMessage(), "retry_ticks", delayTicks);
+                Bukkit.getScheduler().runTaskLaterAsynchronously(this, () -> {
+                    if (session.getState() == State.CONNECTED) sendProofRequest(session);
+                }, delayTicks);
+                return null;
+            }
+            log.warning("proof.request-failed", "connection", connectionId, "error", cause.getMessage());
+            sendMessage(player, Component.text("Failed to send proof request", NamedTextColor.RED));
+            finish(session, State.REJECTED);
+            return null;
+        });
+    }
+    
+    // Local back-pressure, an open circuit, a timeout or a 5xx; only a 4xx is the agent refusing the request
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof AgentClient.AgentException agentError) return agentError.getStatus() >= 500;
+        return cause instanceof IOException;
+    }
+    
+    private CompletableFuture<JsonArray> buildFlexibleRestrictions() {
+        // Query all available credential definitions
+        return agentClient.getCreatedCredentialDefinitions().thenApply(responseJson -> {
+            JsonArray restrictions = new JsonArray();
+            JsonArray credDefIds = responseJson.has("credential_definition_ids")
+                ? responseJson.getAsJsonArray("credential_definition_ids") : new JsonArray();
             
-            getLogger().info("Proof request payload: " + proofRequest.toString());
+            // Add each credential definition as a valid restriction
+            for (int i = 0; i < credDefIds.size(); i++) {
+                JsonObject restriction = new JsonObject();
+                restriction.addProperty("cred_def_id", credDefIds.get(i).getAsString());
+                restrictions.add(restriction);
+            }
+            log.info("restrictions.built", "credential_definitions", restrictions.size());
             
-            try (Response response = httpClient.newCall(httpRequest).execute()) {
-                String responseBody = response.body() != null ? response.body().string() : "No response";
-                getLogger().info("Proof request response: " + response.code() + " - " + responseBody);
+            // If no credential definitions found, add a fallback broad restriction
+            return restrictions.size() > 0 ? restrictions : fallbackRestrictions();
+        });
+    }
+    
+    private JsonArray fallbackRestrictions() {
+        JsonArray restrictions = new JsonArray();
+        JsonObject fallback = new JsonObject();
+        fallback.addProperty("schema_name", "Identity_Schema");
+        restrictions.add(fallback);
+        log.info("restrictions.fallback", "schema_name", "Identity_Schema");
+        return restrictions;
+    }
+    
+    // Serialized once per restriction refresh; every proof request reuses the same string
+    private String buildPresentationRequest(JsonArray restrictions) {
+        JsonObject requestedAttributes = new JsonObject();
+        for (String attribute : getConfig().getStringList("verification.required-attributes")) {
+            JsonObject requested = new JsonObject();
+            requested.addProperty("name", attribute);
+            requested.add("restrictions", restrictions);
+            requestedAttributes.add(attribute, requested);
+        }
+        
+        JsonObject requestedPredicates = new JsonObject();
+        ConfigurationSection predicates = getConfig().getConfigurationSection("verification.required-predicates");
+        if (predicates != null) {
+            for (String key : predicates.getKeys(false)) {
+                JsonObject predicate = new JsonObject();
+                predicate.addProperty("name", predicates.getString(key + ".attribute"));
+                predicate.addProperty("p_type", predicates.getString(key + ".predicate-type", ">="));
+                predicate.addProperty("p_value", predicates.getInt(key + ".value"));
+                predicate.add("restrictions", restrictions);
+                requestedPredicates.add(key.replace('-', '_'), predicate);
+            }
+        }
+        
+        JsonObject indy = new JsonObject();
+        indy.addProperty("name", getConfig().getString("verification.proof-name", "Minecraft Server Identity Verification"));
+        indy.addProperty("version", "1.0");
+        indy.add("requested_attributes", requestedAttributes);
+        indy.add("requested_predicates", requestedPredicates);
+        
+        JsonObject presentationRequest = new JsonObject();
+        presentationRequest.add("indy", indy);
+        return presentationRequest.toString();
+    }
+    
+    private CompletableFuture<Void> pollProofStatus(VerificationSession session) {
+        // Check proof status using ACA-Py API
+        return agentClient.getProofRecord(session.getProofExchangeId()).thenAccept(proofData -> {
+            log.trace(playerId(session), session.getConnectionId(), "poll.proof",
+                "pres_ex_id", session.getProofExchangeId(), "record", proofData);
+            onProofState(session, stringField(proofData, "state"));
+        });
+    }
+    
+    private void applyIndexedProofState(VerificationSession session) {
+        ProofExchangeIndex.Entry entry = proofIndex.lookup(session.getConnectionId());
+        if (entry != null) {
+            bindProofExchange(session, entry.proofExchangeId());
+            onProofState(session, entry.state());
+        }
+    }
+    
+    private CompletableFuture<Void> refreshProofIndex() {
+        if (!proofIndex.hasWatched()) return CompletableFuture.completedFuture(null);
+        
+        return agentClient.listProofRecords(proofIndex.refreshUrl(acapyAdminUrl))
+            .thenAccept(recordsData -> {
+                JsonArray records = recordsData.getAsJsonArray("results");
+                if (records == null) return;
                 
-                if (response.isSuccessful()) {
-                    sendMessage(player, Component.text("Proof request sent! Please approve in your wallet.", NamedTextColor.YELLOW));
-                    
-                    JsonObject responseJson = JsonParser.parseString(responseBody).getAsJsonObject();
-                    if (responseJson.has("pres_ex_id")) {
-                        String proofExchangeId = responseJson.get("pres_ex_id").getAsString();
-                        monitorProofStatus(proofExchangeId, player);
-                    } else {
-                        // Fallback: monitor all proof records for this connection
-                        monitorProofStatusByConnection(connectionId, player);
+                for (ProofExchangeIndex.Entry entry : proofIndex.ingest(records)) {
+                    VerificationSession session = sessions.forConnection(entry.connectionId());
+                    if (session != null) {
+                        bindProofExchange(session, entry.proofExchangeId());
+                        onProofState(session, entry.state());
                     }
-                    
+                }
+            })
+            .exceptionally(error -> {
+                Throwable cause = unwrap(error);
+                // Older agents reject the query filters; retry unfiltered on the next pass
+                if (cause instanceof AgentClient.AgentException agentError && proofIndex.filtersSupported()
+                        && (agentError.getStatus() == 400 || agentError.getStatus() == 422)) {
+                    log.info("proof-index.filters-disabled", "status", agentError.getStatus());
+                    proofIndex.disableFilters();
                 } else {
-                    getLogger().warning("Proof request failed: " + response.code() + " - " + responseBody);
-                    sendMessage(player, Component.text("Failed to send proof request", NamedTextColor.RED));
+                    log.warning("proof-index.refresh-failed", "error", cause.getMessage());
                 }
-            }
-        } catch (Exception e) {
-            getLogger().severe("Proof request failed: " + e.getMessage());
-            e.printStackTrace();
+                return null;
+            });
+    }
+    
+    private void bindProofExchange(VerificationSession session, String proofExchangeId) {
+        if (proofExchangeId != null && session.getProofExchangeId() == null) {
+            session.setProofExchangeId(proofExchangeId);
+            sessions.bindProofExchange(session, proofExchangeId);
         }
     }
     
-    private JsonArray buildFlexibleRestrictions() {
-        JsonArray restrictions = new JsonArray();
+    private void onProofState(VerificationSession session, String state) {
+        UUID player = session.getPlayerId();
         
-        try {
-            // Query all available credential definitions
-            Request request = new Request.Builder()
-                .url(acapyAdminUrl + "/credential-definitions/created")
-                .build();
+        if ("presentation-received".equals(state) || "done".equals(state)) {
+            if (!finish(session, State.VERIFIED)) return;
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.isSuccessful() && response.body() != null) {
-                    JsonObject responseJson = JsonParser.parseString(response.body().string()).getAsJsonObject();
-                    JsonArray credDefIds = responseJson.getAsJsonArray("credential_definition_ids");
-                    
-                    // Add each credential definition as a valid restriction
-                    for (int i = 0; i < credDefIds.size(); i++) {
-                        JsonObject restriction = new JsonObject();
-                        restriction.addProperty("cred_def_id", credDefIds.get(i).getAsString());
-                        restrictions.add(restriction);
-                    }
-                    
-                    getLogger().info("Built flexible restrictions with " + restrictions.size() + " credential definitions");
-                }
+            // Proof was received and verified
+            verifiedPlayers.markVerified(player, session.getPlayerName(),
+                session.getConnectionId(), session.getProofExchangeId());
+            sendMessage(player, Component.text("✓ Verification completed successfully!", NamedTextColor.GREEN));
+            
+            benefits.grant(player);
+            
+        } else if ("abandoned".equals(state) || "request-rejected".equals(state)) {
+            if (finish(session, State.REJECTED)) {
+                sendMessage(player, Component.text("Verification was rejected or abandoned", NamedTextColor.RED));
             }
-        } catch (Exception e) {
-            getLogger().warning("Failed to build flexible restrictions: " + e.getMessage());
+            
+        } else if (session.getState() == State.PROOF_REQUESTED && session.markWalletPromptSent()) {
+            // Still waiting - remind the player once
+            sendMessage(player, Component.text("Please check your wallet and approve the proof request!", NamedTextColor.GOLD));
         }
+    }
+    
+    // Moves a live session into a terminal state exactly once and drops it from the indexes
+    private boolean finish(VerificationSession session, State terminal) {
+        State current;
+        do {
+            current = session.getState();
+            if (current.isTerminal()) return false;
+        } while (!session.transition(current, terminal));
         
-        // If no credential definitions found, add a fallback broad restriction
-        if (restrictions.size() == 0) {
-            JsonObject fallback = new JsonObject();
-            fallback.addProperty("schema_name", "Identity_Schema");
-            restrictions.add(fallback);
-            getLogger().info("Using fallback restriction: Identity_Schema");
+        log.trace(playerId(session), session.getConnectionId(), "verification.finished",
+            "player", session.getPlayerName(), "outcome", terminal, "from", current);
+        outcomeCounter(terminal).increment();
+        if (terminal == State.VERIFIED) {
+            long now = System.currentTimeMillis();
+            if (session.getConnectedAt() > 0) {
+                stageHistogram("proof").observeMillis(now - session.getConnectedAt());
+            }
+            stageHistogram("total").observeMillis(now - session.getStartedAt());
         }
         
-        return restrictions;
+        sessions.remove(session);
+        proofIndex.unwatch(session.getConnectionId());
+        return true;
     }
     
-    private void monitorProofStatus(String proofExchangeId, Player player) {
-        final int[] taskId = new int[1];
-        
-        taskId[0] = Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
-            private int attempts = 0;
+    private void sweepSessions() {
+        for (VerificationSession session : sessions.sessions()) {
+            State state = session.getState();
+            long age = System.currentTimeMillis() - session.getStartedAt();
             
-            @Override
-            public void run() {
-                attempts++;
-                
-                if (attempts > 60) { // 3 minutes timeout  
-                    sendMessage(player, Component.text("Proof verification timeout", NamedTextColor.RED));
-                    Bukkit.getScheduler().cancelTask(taskId[0]);
-                    return;
+            if (state == State.AWAITING_CONNECTION && session.getStageAgeMillis() > CONNECTION_TIMEOUT_MS) {
+                if (finish(session, State.TIMED_OUT)) {
+                    sendMessage(session.getPlayerId(), Component.text("Verification timeout", NamedTextColor.RED));
                 }
-                
-                try {
-                    // Check proof status using ACA-Py API
-                    Request request = new Request.Builder()
-                        .url(acapyAdminUrl + "/present-proof-2.0/records/" + proofExchangeId)
-                        .build();
-                    
-                    try (Response response = httpClient.newCall(request).execute()) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String responseBody = response.body().string();
-                            getLogger().info("Proof status check #" + attempts + ": " + responseBody);
-                            
-                            JsonObject proofData = JsonParser.parseString(responseBody).getAsJsonObject();
-                            String state = proofData.get("state").getAsString();
-                            
-                            if ("presentation-received".equals(state) || "done".equals(state)) {
-                                // Proof was received and verified
-                                verifiedPlayers.put(player.getName(), true);
-                                sendMessage(player, Component.text("✓ Verification completed successfully!", NamedTextColor.GREEN));
-                                
-                                // Give glowing effect
-                                Bukkit.getScheduler().runTask(SimpleSSIPlugin.this, () -> {
-                                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), 
-                                        "effect give " + player.getName() + " minecraft:glowing 999999 0 true");
-                                });
-                                
-                                Bukkit.getScheduler().cancelTask(taskId[0]);
-                                return;
-                                
-                            } else if ("abandoned".equals(state) || "request-rejected".equals(state)) {
-                                sendMessage(player, Component.text("Verification was rejected or abandoned", NamedTextColor.RED));
-                                Bukkit.getScheduler().cancelTask(taskId[0]);
-                                return;
-                            }
-                            
-                            // Still waiting - continue monitoring
-                            if (attempts == 1) {
-                                sendMessage(player, Component.text("Please check your wallet and approve the proof request!", NamedTextColor.GOLD));
-                            }
-                            
-                        }
-                    }
-                } catch (Exception e) {
-                    getLogger().warning("Proof status monitoring error: " + e.getMessage());
+            } else if (state == State.PROOF_REQUESTED && session.getStageAgeMillis() > PROOF_TIMEOUT_MS) {
+                if (finish(session, State.TIMED_OUT)) {
+                    sendMessage(session.getPlayerId(), Component.text("Proof verification timeout", NamedTextColor.RED));
+                }
+            } else if (age > sessionMaxAgeMillis) {
+                // Hard cap for sessions stuck in any other stage
+                if (finish(session, State.TIMED_OUT)) {
+                    sendMessage(session.getPlayerId(), Component.text("Verification timeout", NamedTextColor.RED));
                 }
             }
-        }, 60L, 60L).getTaskId(); // Check every 3 seconds
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Attachments and the chat prefix do not outlive a session; queue them again
+        UUID playerId = event.getPlayer().getUniqueId();
+        if (verifiedPlayers.isVerified(playerId)) {
+            benefits.grant(playerId);
+        } else {
+            // Infinite effects are saved with the player, so one revoked while offline still has them
+            benefits.revoke(event.getPlayer());
+        }
+        if (revocationSweeper != null) revocationSweeper.online(playerId);
     }
     
-    private void monitorProofStatusByConnection(String connectionId, Player player) {
-        final int[] taskId = new int[1];
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        benefits.forget(playerId);
+        if (revocationSweeper != null) revocationSweeper.offline(playerId);
+        if (admissionQueue != null) admissionQueue.cancel(playerId);
+        sessions.release(playerId);
         
-        taskId[0] = Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
-            private int attempts = 0;
-            
-            @Override
-            public void run() {
-                attempts++;
-                
-                if (attempts > 60) { // 3 minutes timeout  
-                    sendMessage(player, Component.text("Proof verification timeout", NamedTextColor.RED));
-                    Bukkit.getScheduler().cancelTask(taskId[0]);
-                    return;
-                }
-                
-                try {
-                    // Check all proof records to find one for this connection
-                    Request request = new Request.Builder()
-                        .url(acapyAdminUrl + "/present-proof-2.0/records")
-                        .build();
-                    
-                    try (Response response = httpClient.newCall(request).execute()) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String responseBody = response.body().string();
-                            getLogger().info("Proof records check #" + attempts);
-                            
-                            JsonObject recordsData = JsonParser.parseString(responseBody).getAsJsonObject();
-                            JsonArray records = recordsData.getAsJsonArray("results");
-                            
-                            for (int i = 0; i < records.size(); i++) {
-                                JsonObject record = records.get(i).getAsJsonObject();
-                                if (record.has("connection_id") && 
-                                    connectionId.equals(record.get("connection_id").getAsString())) {
-                                    
-                                    String state = record.get("state").getAsString();
-                                    
-                                    if ("presentation-received".equals(state) || "done".equals(state)) {
-                                        // Proof was received and verified
-                                        verifiedPlayers.put(player.getName(), true);
-                                        sendMessage(player, Component.text("✓ Verification completed successfully!", NamedTextColor.GREEN));
-                                        
-                                        // Give glowing effect
-                                        Bukkit.getScheduler().runTask(SimpleSSIPlugin.this, () -> {
-                                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), 
-                                                "effect give " + player.getName() + " minecraft:glowing 999999 0 true");
-                                        });
-                                        
-                                        Bukkit.getScheduler().cancelTask(taskId[0]);
-                                        return;
-                                        
-                                    } else if ("abandoned".equals(state) || "request-rejected".equals(state)) {
-                                        sendMessage(player, Component.text("Verification was rejected or abandoned", NamedTextColor.RED));
-                                        Bukkit.getScheduler().cancelTask(taskId[0]);
-                                        return;
-                                    }
-                                }
-                            }
-                            
-                            // Still waiting - continue monitoring
-                            if (attempts == 1) {
-                                sendMessage(player, Component.text("Please check your wallet and approve the proof request!", NamedTextColor.GOLD));
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    getLogger().warning("Proof status monitoring error: " + e.getMessage());
-                }
-            }
-        }, 60L, 60L).getTaskId(); // Check every 3 seconds
+        VerificationSession session = sessions.forPlayer(playerId);
+        if (session != null) {
+            finish(session, State.CANCELLED);
+        }
+    }
+    
+    private static boolean isConnectionActive(JsonObject connection) {
+        return "active".equals(stringField(connection, "state"))
+            || "completed".equals(stringField(connection, "rfc23_state"));
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    private static String playerId(VerificationSession session) {
+        return session.getPlayerId().toString();
+    }
+    
+    private static String stringField(JsonObject json, String key) {
+        return json.has(key) && !json.get(key).isJsonNull() ? json.get(key).getAsString() : null;
     }
     
     private void removeQRMaps(Player player) {
@@ -464,15 +1195,69 @@ public class SimpleSSIPlugin extends JavaPlugin {
         }
     }
     
-    private void sendMessage(Player player, Component message) {
-        Bukkit.getScheduler().runTask(this, () -> player.sendMessage(message));
+    // Resolved on the main thread at delivery time; players who left in the meantime are skipped
+    private void sendMessage(UUID playerId, Component message) {
+        Bukkit.getScheduler().runTask(this, () -> {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) player.sendMessage(message);
+        });
+    }
+    
+    private boolean handleAdmin(CommandSender sender, String[] args) {
+        if (args.length >= 1 && "debug".equalsIgnoreCase(args[0])) {
+            return handleDebug(sender, args);
+        }
+        if (args.length == 0 || !"stats".equalsIgnoreCase(args[0])) {
+            sender.sendMessage(Component.text("Usage: /ssiadmin <stats|debug [player|connection-id]>", NamedTextColor.YELLOW));
+            return true;
+        }
+        
+        sender.sendMessage(Component.text("=== SSI Verification Stats ===", NamedTextColor.GOLD));
+        metrics.snapshot().forEach((name, metric) -> {
+            String value;
+            if (metric instanceof Metrics.Counter counter) {
+                value = String.valueOf(counter.get());
+            } else if (metric instanceof Metrics.Histogram histogram) {
+                value = String.format(Locale.ROOT, "n=%d p50<=%ss p99<=%ss", histogram.count(),
+                    histogram.quantile(0.5), histogram.quantile(0.99));
+            } else if (metric instanceof LongSupplier gauge) {
+                value = String.valueOf(gauge.getAsLong());
+            } else {
+                return;
+            }
+            sender.sendMessage(Component.text(name.replaceFirst("^ssi_", "") + ": ", NamedTextColor.GRAY)
+                .append(Component.text(value, NamedTextColor.WHITE)));
+        });
+        return true;
+    }
+    
+    // Toggles per-player (online name) or per-session (connection id) debug logging at runtime
+    private boolean handleDebug(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(Component.text("Debugging: " + (log.debugSubjects().isEmpty()
+                ? "nobody" : String.join(", ", log.debugSubjects())), NamedTextColor.GOLD));
+            return true;
+        }
+        
+        Player target = Bukkit.getPlayerExact(args[1]);
+        String subject = target != null ? target.getUniqueId().toString() : args[1];
+        boolean enabled = log.toggleDebug(subject);
+        sender.sendMessage(Component.text("Debug logging " + (enabled ? "enabled" : "disabled") + " for "
+            + (target != null ? target.getName() : "session " + args[1]), enabled ? NamedTextColor.GREEN : NamedTextColor.YELLOW));
+        return true;
     }
     
     private void handleSSIVerify(Player sender, String targetPlayerName) {
         sender.sendMessage(Component.text("=== Verification Status ===", NamedTextColor.GOLD));
         sender.sendMessage(Component.text("Player: " + targetPlayerName, NamedTextColor.WHITE));
         
-        if (verifiedPlayers.getOrDefault(targetPlayerName, false)) {
+        // Online players resolve by UUID; offline ones by the last name they verified under
+        Player target = Bukkit.getPlayerExact(targetPlayerName);
+        VerifiedPlayerStore.Entry entry = target != null
+            ? verifiedPlayers.get(target.getUniqueId())
+            : verifiedPlayers.findByName(targetPlayerName);
+        
+        if (entry != null && entry.verified) {
             sender.sendMessage(Component.text("Status: ✓ VERIFIED", NamedTextColor.GREEN));
         } else {
             sender.sendMessage(Component.text("Status: ✗ NOT VERIFIED", NamedTextColor.RED));
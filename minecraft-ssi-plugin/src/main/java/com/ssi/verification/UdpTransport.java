@@ -0,0 +1,87 @@
+package com.ssi.verification;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Replication over plain UDP datagrams to a fixed list of peers. Meant for local test setups
+ * (several servers on one machine, no proxy); lost datagrams are repaired by anti-entropy.
+ */
+public class UdpTransport implements VerificationReplicator.Transport {
+
+    // Largest IPv4 UDP payload
+    private static final int MAX_DATAGRAM = 65507;
+
+    private final InetSocketAddress bind;
+    private final List<InetSocketAddress> peers;
+    private final Logger logger;
+
+    private volatile DatagramSocket socket;
+    private Thread listener;
+
+    public UdpTransport(InetSocketAddress bind, List<InetSocketAddress> peers, Logger logger) {
+        this.bind = bind;
+        this.peers = List.copyOf(peers);
+        this.logger = logger;
+    }
+
+    /** Parses {@code host:port}. */
+    public static InetSocketAddress parseAddress(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("Expected host:port, got '" + hostPort + "'");
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        DatagramSocket bound = new DatagramSocket(bind);
+        socket = bound;
+        listener = new Thread(() -> {
+            byte[] buffer = new byte[MAX_DATAGRAM];
+            while (!bound.isClosed()) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    bound.receive(packet);
+                } catch (IOException e) {
+                    if (!bound.isClosed()) logger.fine("Replication receive failed: " + e.getMessage());
+                    continue;
+                }
+                receiver.accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
+            }
+        }, "SSI-Replication-UDP");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void send(byte[] message) {
+        DatagramSocket current = socket;
+        if (current == null) return;
+        for (InetSocketAddress peer : peers) {
+            try {
+                current.send(new DatagramPacket(message, message.length, peer));
+            } catch (IOException e) {
+                logger.fine("Replication send to " + peer + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return MAX_DATAGRAM;
+    }
+
+    @Override
+    public void stop() {
+        DatagramSocket current = socket;
+        socket = null;
+        if (current != null) current.close();
+        listener = null;
+    }
+}
@@ -0,0 +1,287 @@
+package com.ssi.verification;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Structured logging for the verification flow: {@code event key=value ...} lines, gated by level
+ * before anything is formatted, rate-limited per event, and handed to a single background thread
+ * so console I/O never runs on the main thread or an agent callback. Proof payloads are redacted
+ * before they are written.
+ *
+ * <p>Debug output can be switched on for individual players or sessions at runtime; those lines
+ * are written at INFO regardless of the configured level.
+ */
+public class VerificationLog {
+
+    private static final String REDACTED = "[redacted]";
+    private static final int MAX_VALUE_LENGTH = 512;
+
+    private static final class Window {
+        long startedAt;
+        int count;
+        int suppressed;
+        long seen;
+    }
+
+    private final Logger target;
+    private final Level level;
+    private final int perEventPerMinute;
+    private final int sampleEvery;
+    private final BlockingQueue<LogRecord> queue;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final Set<String> debugSubjects = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Thread appender;
+    private volatile boolean running;
+
+    public VerificationLog(Logger target, Level level, int queueSize, int perEventPerMinute, int sampleEvery) {
+        this.target = target;
+        this.level = level;
+        this.perEventPerMinute = perEventPerMinute;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, queueSize));
+    }
+
+    // Accepts java.util.logging names plus DEBUG/TRACE/WARN for people used to other frameworks
+    public static Level parseLevel(String name, Level fallback) {
+        if (name == null) return fallback;
+        switch (name.trim().toUpperCase(Locale.ROOT)) {
+            case "DEBUG": return Level.FINE;
+            case "TRACE": return Level.FINEST;
+            case "WARN": return Level.WARNING;
+            case "ERROR": return Level.SEVERE;
+            default:
+                try {
+                    return Level.parse(name.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    return fallback;
+                }
+        }
+    }
+
+    public void start() {
+        running = true;
+        appender = new Thread(this::drain, "SSI-Log");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    public void close() {
+        running = false;
+        if (appender != null) {
+            appender.interrupt();
+            try {
+                appender.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            appender = null;
+        }
+        // Whatever is left goes out on the caller's thread; this only happens at shutdown
+        LogRecord record;
+        while ((record = queue.poll()) != null) {
+            target.log(record);
+        }
+    }
+
+    public boolean isEnabled(Level candidate) {
+        return candidate.intValue() >= level.intValue();
+    }
+
+    public void info(String event, Object... fields) {
+        log(Level.INFO, event, fields);
+    }
+
+    public void warning(String event, Object... fields) {
+        log(Level.WARNING, event, fields);
+    }
+
+    public void severe(String event, Object... fields) {
+        log(Level.SEVERE, event, fields);
+    }
+
+    public void fine(String event, Object... fields) {
+        log(Level.FINE, event, fields);
+    }
+
+    /** Rate-limited per event name; suppressed lines are counted on the next one that gets through. */
+    public void log(Level at, String event, Object... fields) {
+        if (!isEnabled(at)) return;
+        int suppressed = admit(event, false);
+        if (suppressed < 0) return;
+        enqueue(at, event, fields, suppressed, false);
+    }
+
+    /** For lines that repeat on every poll: only one in {@code sampleEvery} per event is written. */
+    public void sampled(Level at, String event, Object... fields) {
+        if (!isEnabled(at)) return;
+        int skipped = admit(event, true);
+        if (skipped < 0) return;
+        enqueue(at, event, fields, skipped, false);
+    }
+
+    /**
+     * Per-session detail. Written at INFO when debug is on for the player or session, otherwise at
+     * FINE under the normal level gate and sampling.
+     */
+    public void trace(String playerId, String sessionId, String event, Object... fields) {
+        if (isDebugging(playerId) || isDebugging(sessionId)) {
+            enqueue(Level.INFO, event, fields, 0, true);
+        } else {
+            sampled(Level.FINE, event, fields);
+        }
+    }
+
+    public boolean toggleDebug(String subject) {
+        String key = subject.toLowerCase(Locale.ROOT);
+        if (debugSubjects.remove(key)) return false;
+        debugSubjects.add(key);
+        return true;
+    }
+
+    public Set<String> debugSubjects() {
+        return Set.copyOf(debugSubjects);
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private boolean isDebugging(String subject) {
+        return subject != null && !debugSubjects.isEmpty() && debugSubjects.contains(subject.toLowerCase(Locale.ROOT));
+    }
+
+    // Returns how many lines were held back since the last admitted one, or -1 to drop this one
+    private int admit(String event, boolean sample) {
+        Window window = windows.computeIfAbsent(event, key -> new Window());
+        synchronized (window) {
+            if (sample) {
+                if (window.seen++ % sampleEvery != 0) {
+                    window.suppressed++;
+                    return -1;
+                }
+            } else {
+                long now = System.currentTimeMillis();
+                if (now - window.startedAt >= TimeUnit.MINUTES.toMillis(1)) {
+                    window.startedAt = now;
+                    window.count = 0;
+                }
+                if (perEventPerMinute > 0 && ++window.count > perEventPerMinute) {
+                    window.suppressed++;
+                    return -1;
+                }
+            }
+            int suppressed = window.suppressed;
+            window.suppressed = 0;
+            return suppressed;
+        }
+    }
+
+    private void enqueue(Level at, String event, Object[] fields, int suppressed, boolean debug) {
+        StringBuilder message = new StringBuilder(64);
+        if (debug || at.intValue() < Level.INFO.intValue()) message.append("[debug] ");
+        message.append(event);
+
+        Throwable thrown = null;
+        for (int i = 0; i < fields.length; i += 2) {
+            if (i + 1 >= fields.length) {
+                if (fields[i] instanceof Throwable throwable) thrown = throwable;
+                break;
+            }
+            message.append(' ').append(fields[i]).append('=').append(format(fields[i + 1]));
+        }
+        if (suppressed > 0) message.append(" suppressed=").append(suppressed);
+
+        // The server console filters below INFO, so enabled debug lines are raised to INFO
+        LogRecord record = new LogRecord(at.intValue() < Level.INFO.intValue() ? Level.INFO : at, message.toString());
+        record.setThrown(thrown);
+        record.setLoggerName(target.getName());
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                LogRecord record = queue.poll(1, TimeUnit.SECONDS);
+                if (record != null) target.log(record);
+
+                long drops = dropped.get();
+                if (drops != reportedDrops && queue.isEmpty()) {
+                    target.warning("Log queue overflowed, dropped " + (drops - reportedDrops) + " lines");
+                    reportedDrops = drops;
+                }
+            } catch (InterruptedException e) {
+                if (!running) return;
+            }
+        }
+    }
+
+    private static String format(Object value) {
+        String text;
+        if (value instanceof JsonElement json) {
+            text = redact(json).toString();
+        } else {
+            text = String.valueOf(value);
+        }
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...(" + text.length() + " chars)";
+        }
+        return text.indexOf(' ') >= 0 && !(value instanceof JsonElement) ? '"' + text + '"' : text;
+    }
+
+    /**
+     * Copy of an agent payload with everything a holder disclosed removed: revealed and
+     * self-attested attribute values, credential values and the raw proof blobs.
+     */
+    public static JsonElement redact(JsonElement element) {
+        if (element instanceof JsonArray array) {
+            JsonArray copy = new JsonArray(array.size());
+            array.forEach(item -> copy.add(redact(item)));
+            return copy;
+        }
+        if (!(element instanceof JsonObject object)) {
+            return element;
+        }
+
+        JsonObject copy = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+            String key = field.getKey();
+            JsonElement value = field.getValue();
+            switch (key) {
+                case "revealed_attrs", "revealed_attr_groups", "self_attested_attrs", "unrevealed_attrs" -> {
+                    // Keep which attributes were involved, not their values
+                    if (value instanceof JsonObject attributes) {
+                        JsonObject names = new JsonObject();
+                        attributes.keySet().forEach(name -> names.add(name, new JsonPrimitive(REDACTED)));
+                        copy.add(key, names);
+                    } else {
+                        copy.add(key, new JsonPrimitive(REDACTED));
+                    }
+                }
+                case "proof", "values", "raw", "encoded", "presentation", "pres" ->
+                    copy.add(key, new JsonPrimitive(REDACTED));
+                default -> copy.add(key, redact(value));
+            }
+        }
+        return copy;
+    }
+}
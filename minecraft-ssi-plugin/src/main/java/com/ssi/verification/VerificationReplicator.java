@@ -0,0 +1,291 @@
+package com.ssi.verification;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Replicates {@link VerifiedPlayerStore} records between the backends of a proxy network, so a
+ * player verifies once per network instead of once per server. Every record is versioned by its
+ * update time (the writing server breaks ties) and the newer version wins, so records can arrive
+ * twice or out of order and revocations travel the same way as grants. On startup a backend asks
+ * its peers for whatever changed while it was down; after that, peers periodically exchange
+ * bucketed checksums and re-send the buckets that differ, which repairs anything the transport lost.
+ * Every message carries an HMAC-SHA256 over its body, keyed by a secret shared by all backends;
+ * messages without a valid one are dropped.
+ */
+public class VerificationReplicator {
+
+    /** Carries opaque messages to every other backend; delivery may be lossy and unordered. */
+    public interface Transport {
+        void start(Consumer<byte[]> receiver) throws IOException;
+
+        void send(byte[] message);
+
+        int maxMessageBytes();
+
+        void stop();
+    }
+
+    private static final int BUCKETS = 64;
+    // Room for the envelope around a chunk of records
+    private static final int ENVELOPE_BYTES = 256;
+    private static final int SIGNATURE_BYTES = 32;
+
+    private final VerifiedPlayerStore store;
+    private final Transport transport;
+    private final String serverId;
+    private final long resyncOverlapMillis;
+    private final long antiEntropyMillis;
+    private final Consumer<VerifiedPlayerStore.Entry> onRemoteChange;
+    private final Logger logger;
+    private final Gson gson = new Gson();
+    // Only used on the replication thread, which does all sending and receiving
+    private final Mac mac;
+
+    private ScheduledExecutorService executor;
+    private Metrics.Counter messagesSent;
+    private Metrics.Counter recordsApplied;
+
+    public VerificationReplicator(VerifiedPlayerStore store, Transport transport, String serverId,
+                                  long resyncOverlapMillis, long antiEntropyMillis,
+                                  Consumer<VerifiedPlayerStore.Entry> onRemoteChange, String secret, Logger logger) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("replication needs a shared secret");
+        }
+        try {
+            mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+        this.store = store;
+        this.transport = transport;
+        this.serverId = serverId;
+        this.resyncOverlapMillis = resyncOverlapMillis;
+        this.antiEntropyMillis = antiEntropyMillis;
+        this.onRemoteChange = onRemoteChange;
+        this.logger = logger;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        messagesSent = metrics.counter("ssi_replication_messages_sent_total", "Replication messages sent to other servers");
+        recordsApplied = metrics.counter("ssi_replication_records_applied_total", "Verification records taken over from other servers");
+    }
+
+    public void start() throws IOException {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SSI-Replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transport.start(message -> submit(() -> receive(message)));
+        store.setChangeListener(entry -> submit(() -> publish(List.of(entry))));
+
+        // The overlap covers clock skew between servers and records still in flight at shutdown
+        long since = Math.max(0, store.newestUpdate() - resyncOverlapMillis);
+        submit(() -> requestSync(since));
+        if (antiEntropyMillis > 0) {
+            executor.scheduleWithFixedDelay(this::sendDigest, antiEntropyMillis, antiEntropyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stop() {
+        store.setChangeListener(null);
+        transport.stop();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void submit(Runnable task) {
+        ScheduledExecutorService current = executor;
+        if (current == null) return;
+        try {
+            current.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Replication task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Stopping; peers catch up through their own anti-entropy
+        }
+    }
+
+    // --- outgoing ---
+
+    private void requestSync(long since) {
+        JsonObject message = envelope("sync");
+        message.addProperty("since", since);
+        send(message);
+    }
+
+    private void sendDigest() {
+        JsonObject message = envelope("digest");
+        JsonArray buckets = new JsonArray();
+        for (long checksum : digest(store.entries())) {
+            buckets.add(checksum);
+        }
+        message.add("buckets", buckets);
+        send(message);
+    }
+
+    // Split by serialized size so no message exceeds what the transport can carry
+    private void publish(Collection<VerifiedPlayerStore.Entry> entries) {
+        int budget = transport.maxMessageBytes() - ENVELOPE_BYTES;
+        JsonArray chunk = new JsonArray();
+        int size = 0;
+        for (VerifiedPlayerStore.Entry entry : entries) {
+            JsonElement json = gson.toJsonTree(entry);
+            int length = json.toString().getBytes(StandardCharsets.UTF_8).length + 1;
+            if (size + length > budget && chunk.size() > 0) {
+                sendEntries(chunk);
+                chunk = new JsonArray();
+                size = 0;
+            }
+            chunk.add(json);
+            size += length;
+        }
+        if (chunk.size() > 0) {
+            sendEntries(chunk);
+        }
+    }
+
+    private void sendEntries(JsonArray entries) {
+        JsonObject message = envelope("entries");
+        message.add("entries", entries);
+        send(message);
+    }
+
+    private JsonObject envelope(String type) {
+        JsonObject message = new JsonObject();
+        message.addProperty("type", type);
+        message.addProperty("from", serverId);
+        return message;
+    }
+
+    // Wire format: the 32-byte HMAC of the body, then the JSON body
+    private void send(JsonObject message) {
+        byte[] body = gson.toJson(message).getBytes(StandardCharsets.UTF_8);
+        byte[] signed = Arrays.copyOf(mac.doFinal(body), SIGNATURE_BYTES + body.length);
+        System.arraycopy(body, 0, signed, SIGNATURE_BYTES, body.length);
+        transport.send(signed);
+        if (messagesSent != null) messagesSent.increment();
+    }
+
+    // --- incoming ---
+
+    private void receive(byte[] bytes) {
+        if (bytes.length <= SIGNATURE_BYTES) return;
+        byte[] body = Arrays.copyOfRange(bytes, SIGNATURE_BYTES, bytes.length);
+        if (!MessageDigest.isEqual(mac.doFinal(body), Arrays.copyOf(bytes, SIGNATURE_BYTES))) {
+            logger.fine("Dropping replication message with a missing or bad signature");
+            return;
+        }
+
+        JsonObject message;
+        try {
+            message = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            logger.fine("Ignoring unreadable replication message: " + e.getMessage());
+            return;
+        }
+        JsonElement from = message.get("from");
+        JsonElement type = message.get("type");
+        // Transports that loop messages back to the sender are fine; our own are dropped here
+        if (from == null || type == null || serverId.equals(from.getAsString())) return;
+
+        switch (type.getAsString()) {
+            case "entries" -> merge(message.getAsJsonArray("entries"));
+            case "sync" -> publish(store.entriesSince(message.get("since").getAsLong()));
+            case "digest" -> repair(message.getAsJsonArray("buckets"));
+            default -> logger.fine("Ignoring replication message of type " + type.getAsString());
+        }
+    }
+
+    private void merge(JsonArray entries) {
+        if (entries == null) return;
+        for (JsonElement element : entries) {
+            VerifiedPlayerStore.Entry entry;
+            try {
+                entry = gson.fromJson(element, VerifiedPlayerStore.Entry.class);
+            } catch (JsonParseException e) {
+                continue;
+            }
+            if (store.merge(entry)) {
+                if (recordsApplied != null) recordsApplied.increment();
+                onRemoteChange.accept(entry);
+            }
+        }
+    }
+
+    // Both sides send their copy of every differing bucket; the newer version wins on each
+    private void repair(JsonArray theirs) {
+        if (theirs == null || theirs.size() != BUCKETS) return;
+        long[] ours = digest(store.entries());
+        Set<Integer> differing = new HashSet<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (ours[bucket] != theirs.get(bucket).getAsLong()) differing.add(bucket);
+        }
+        if (differing.isEmpty()) return;
+
+        List<VerifiedPlayerStore.Entry> resend = new ArrayList<>();
+        for (VerifiedPlayerStore.Entry entry : store.entries()) {
+            if (differing.contains(bucket(entry))) resend.add(entry);
+        }
+        logger.fine("Re-sending " + resend.size() + " records in " + differing.size() + " buckets that differ from a peer");
+        publish(resend);
+    }
+
+    // --- checksums ---
+
+    // XOR of per-record fingerprints, so the order records were applied in does not matter
+    static long[] digest(Collection<VerifiedPlayerStore.Entry> entries) {
+        long[] buckets = new long[BUCKETS];
+        for (VerifiedPlayerStore.Entry entry : entries) {
+            if (entry.uuid == null) continue;
+            buckets[bucket(entry)] ^= fingerprint(entry);
+        }
+        return buckets;
+    }
+
+    private static int bucket(VerifiedPlayerStore.Entry entry) {
+        return Math.floorMod(entry.uuid.hashCode(), BUCKETS);
+    }
+
+    private static long fingerprint(VerifiedPlayerStore.Entry entry) {
+        long hash = entry.uuid.hashCode() * 0x9E3779B97F4A7C15L + entry.updatedAt;
+        if (entry.verified) hash = ~hash;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,124 @@
+package com.ssi.verification;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One player's walk through the invitation -> connection -> proof flow. Webhook events and
+ * fallback polls both drive the same session, so every step is a compare-and-set transition
+ * and whichever source observes a state first wins.
+ *
+ * <p>Only the player's UUID and name are kept, never the {@code Player}, so a session that outlives
+ * its player does not pin the entity. Each session owns at most one scheduled poll at a time.
+ */
+public class VerificationSession {
+
+    public enum State {
+        AWAITING_CONNECTION,
+        CONNECTED,
+        PROOF_REQUESTED,
+        VERIFIED,
+        REJECTED,
+        TIMED_OUT,
+        CANCELLED;
+
+        public boolean isTerminal() {
+            return this == VERIFIED || this == REJECTED || this == TIMED_OUT || this == CANCELLED;
+        }
+    }
+
+    private final UUID playerId;
+    private final String playerName;
+    private final String connectionId;
+    private final AtomicReference<State> state = new AtomicReference<>(State.AWAITING_CONNECTION);
+    private volatile String proofExchangeId;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long stageStartedAt = startedAt;
+    private volatile long connectedAt;
+    private volatile long pollIntervalTicks;
+    private final AtomicBoolean walletPromptSent = new AtomicBoolean();
+    private final AtomicReference<PollScheduler.Timeout> task = new AtomicReference<>();
+
+    public VerificationSession(UUID playerId, String playerName, String connectionId) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.connectionId = connectionId;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    public String getProofExchangeId() {
+        return proofExchangeId;
+    }
+
+    public void setProofExchangeId(String proofExchangeId) {
+        this.proofExchangeId = proofExchangeId;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            stageStartedAt = System.currentTimeMillis();
+            if (to == State.CONNECTED) connectedAt = stageStartedAt;
+            return true;
+        }
+        return false;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    // Zero until the wallet connection came up
+    public long getConnectedAt() {
+        return connectedAt;
+    }
+
+    public long getStageAgeMillis() {
+        return System.currentTimeMillis() - stageStartedAt;
+    }
+
+    public long getPollIntervalTicks() {
+        return pollIntervalTicks;
+    }
+
+    public void setPollIntervalTicks(long pollIntervalTicks) {
+        this.pollIntervalTicks = pollIntervalTicks;
+    }
+
+    // Installs the session's next scheduled poll, cancelling whatever was still pending
+    public void replaceTask(PollScheduler.Timeout next) {
+        PollScheduler.Timeout previous = task.getAndSet(next);
+        if (previous != null && previous != next) previous.cancel();
+        if (getState().isTerminal()) cancelTask();
+    }
+
+    public void cancelTask() {
+        PollScheduler.Timeout previous = task.getAndSet(null);
+        if (previous != null) previous.cancel();
+    }
+
+    public boolean hasPendingTask() {
+        PollScheduler.Timeout current = task.get();
+        return current != null && current.isPending();
+    }
+
+    // The "approve in your wallet" reminder goes out once per session, whichever path gets there first
+    public boolean markWalletPromptSent() {
+        return walletPromptSent.compareAndSet(false, true);
+    }
+}
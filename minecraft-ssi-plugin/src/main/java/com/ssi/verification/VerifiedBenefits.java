@@ -0,0 +1,195 @@
+package com.ssi.verification;
+
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * Verified-player benefits applied through the API: potion effects, a permission attachment and
+ * a chat prefix, all taken from {@code settings.verified-benefits}. Grants can be requested from
+ * any thread; they are queued and applied on the main thread at most {@code apply-per-tick} players
+ * per tick, so a join storm of verified players is spread over several ticks.
+ */
+public class VerifiedBenefits implements Listener {
+
+    private final Plugin plugin;
+    private final List<PotionEffect> effects;
+    private final Map<String, Boolean> permissions;
+    private final Component chatPrefix;
+    private final int perTick;
+
+    private final ConcurrentLinkedQueue<UUID> queue = new ConcurrentLinkedQueue<>();
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    // Read by the async chat thread
+    private final Set<UUID> prefixed = ConcurrentHashMap.newKeySet();
+    // Main thread only
+    private final Map<UUID, PermissionAttachment> attachments = new HashMap<>();
+    private BukkitTask drainTask;
+
+    public VerifiedBenefits(Plugin plugin, List<PotionEffect> effects, Map<String, Boolean> permissions,
+                            Component chatPrefix, int perTick) {
+        this.plugin = plugin;
+        this.effects = List.copyOf(effects);
+        this.permissions = Map.copyOf(permissions);
+        this.chatPrefix = chatPrefix;
+        this.perTick = Math.max(1, perTick);
+    }
+
+    public static VerifiedBenefits fromConfig(Plugin plugin, ConfigurationSection section) {
+        Logger logger = plugin.getLogger();
+        List<PotionEffect> effects = new ArrayList<>();
+        Map<String, Boolean> permissions = new LinkedHashMap<>();
+        Component prefix = null;
+        int perTick = 20;
+
+        if (section != null) {
+            for (Map<?, ?> entry : section.getMapList("effects")) {
+                PotionEffect effect = parseEffect(entry);
+                if (effect != null) {
+                    effects.add(effect);
+                } else {
+                    logger.warning("Ignoring unknown verified-benefits effect: " + entry);
+                }
+            }
+
+            ConfigurationSection granted = section.getConfigurationSection("permissions");
+            if (granted != null) {
+                for (String node : granted.getKeys(false)) {
+                    permissions.put(node, granted.getBoolean(node, true));
+                }
+            }
+
+            // Parsed once here; chat only ever appends the same immutable component
+            String legacy = section.getString("chat-prefix", "");
+            if (legacy != null && !legacy.isEmpty()) {
+                prefix = LegacyComponentSerializer.legacyAmpersand().deserialize(legacy);
+            }
+            perTick = section.getInt("apply-per-tick", perTick);
+        }
+        return new VerifiedBenefits(plugin, effects, permissions, prefix, perTick);
+    }
+
+    private static PotionEffect parseEffect(Map<?, ?> entry) {
+        Object type = entry.get("type");
+        NamespacedKey key = type != null ? NamespacedKey.fromString(type.toString().toLowerCase(Locale.ROOT)) : null;
+        PotionEffectType effectType = key != null ? Registry.EFFECT.get(key) : null;
+        if (effectType == null) return null;
+
+        int seconds = intValue(entry.get("duration-seconds"), -1);
+        int duration = seconds < 0 ? PotionEffect.INFINITE_DURATION : seconds * 20;
+        return new PotionEffect(effectType, duration, intValue(entry.get("amplifier"), 0),
+            Boolean.TRUE.equals(entry.get("ambient")), !Boolean.FALSE.equals(entry.get("particles")),
+            !Boolean.FALSE.equals(entry.get("icon")));
+    }
+
+    private static int intValue(Object value, int fallback) {
+        return value instanceof Number number ? number.intValue() : fallback;
+    }
+
+    public void start() {
+        drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        attachments.values().forEach(PermissionAttachment::remove);
+        attachments.clear();
+        prefixed.clear();
+        queue.clear();
+        queued.clear();
+    }
+
+    /** Queues the player's benefits; safe from any thread, duplicates collapse. */
+    public void grant(UUID playerId) {
+        if (queued.add(playerId)) {
+            queue.add(playerId);
+        }
+    }
+
+    /** Main thread: drops what does not survive a logout (the attachment and chat prefix). */
+    public void forget(UUID playerId) {
+        PermissionAttachment attachment = attachments.remove(playerId);
+        if (attachment != null) attachment.remove();
+        prefixed.remove(playerId);
+    }
+
+    /** Main thread: takes the benefits away from a player whose verification was revoked. */
+    public void revoke(Player player) {
+        // A grant still in the queue is dropped, so the next drain does not hand everything back
+        queued.remove(player.getUniqueId());
+        forget(player.getUniqueId());
+        for (PotionEffect effect : effects) {
+            player.removePotionEffect(effect.getType());
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void drain() {
+        for (int applied = 0; applied < perTick; applied++) {
+            UUID playerId = queue.poll();
+            if (playerId == null) return;
+            // Revoked while queued
+            if (!queued.remove(playerId)) continue;
+
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                apply(player);
+            }
+        }
+    }
+
+    private void apply(Player player) {
+        if (!effects.isEmpty()) {
+            player.addPotionEffects(effects);
+        }
+        if (!permissions.isEmpty()) {
+            PermissionAttachment attachment = attachments.computeIfAbsent(player.getUniqueId(),
+                id -> player.addAttachment(plugin));
+            permissions.forEach(attachment::setPermission);
+        }
+        if (chatPrefix != null) {
+            prefixed.add(player.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        if (chatPrefix == null || !prefixed.contains(event.getPlayer().getUniqueId())) return;
+
+        ChatRenderer renderer = event.renderer();
+        event.renderer((source, displayName, message, viewer) ->
+            chatPrefix.append(renderer.render(source, displayName, message, viewer)));
+    }
+}
@@ -0,0 +1,323 @@
+package com.ssi.verification;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Verified players keyed by UUID, persisted as an append-only JSON-lines log. The whole log is
+ * replayed into memory on load, so lookups never touch disk; changes are queued and appended in
+ * batches by a single background writer.
+ */
+public class VerifiedPlayerStore {
+
+    public static class Entry {
+        public String uuid;
+        public String name;
+        public boolean verified;
+        public long updatedAt;
+        public String connectionId;
+        public String proofExchangeId;
+        // Server that wrote this version; breaks ties between versions with the same updatedAt
+        public String origin;
+
+        public UUID getUniqueId() {
+            return UUID.fromString(uuid);
+        }
+    }
+
+    // How far ahead of our clock a replicated version may be
+    private static final long MAX_CLOCK_SKEW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final File file;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private final Logger logger;
+    private final Gson gson = new Gson();
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> uuidsByName = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final Object writeLock = new Object();
+
+    private ScheduledExecutorService writer;
+    private volatile String origin;
+    private volatile Consumer<Entry> changeListener;
+
+    public VerifiedPlayerStore(File file, long flushIntervalMillis, int batchSize, Logger logger) {
+        this.file = file;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchSize = batchSize;
+        this.logger = logger;
+    }
+
+    public void load() throws IOException {
+        // The writer runs even if reading fails below, so new verifications are still persisted
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SSI-Store-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        int lines = 0;
+        if (file.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    lines++;
+                    try {
+                        index(gson.fromJson(line, Entry.class));
+                    } catch (JsonParseException | IllegalArgumentException e) {
+                        // A torn final line from a crash is expected; anything before it is still valid
+                        logger.warning("Skipping unreadable verification record on line " + lines);
+                    }
+                }
+            }
+        } else {
+            File parent = file.getParentFile();
+            if (parent != null) parent.mkdirs();
+        }
+
+        // Superseded records only cost disk and startup time, so rewrite once they dominate the log
+        if (lines > 1024 && lines > entries.size() * 2) {
+            compact();
+        }
+    }
+
+    public boolean isVerified(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null && entry.verified;
+    }
+
+    public Entry get(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    public Entry findByName(String name) {
+        UUID uuid = uuidsByName.get(name.toLowerCase(Locale.ROOT));
+        return uuid != null ? entries.get(uuid) : null;
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<Entry> entriesSince(long updatedAt) {
+        List<Entry> changed = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.updatedAt >= updatedAt) changed.add(entry);
+        }
+        return changed;
+    }
+
+    public long newestUpdate() {
+        long newest = 0;
+        for (Entry entry : entries.values()) {
+            newest = Math.max(newest, entry.updatedAt);
+        }
+        return newest;
+    }
+
+    /** Stamped on every version written locally. */
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    /** Told about every local change (not merged ones), on the thread that made it. */
+    public void setChangeListener(Consumer<Entry> listener) {
+        this.changeListener = listener;
+    }
+
+    public void markVerified(UUID uuid, String name, String connectionId, String proofExchangeId) {
+        write(uuid, current -> {
+            Entry entry = new Entry();
+            entry.uuid = uuid.toString();
+            entry.name = name;
+            entry.verified = true;
+            entry.connectionId = connectionId;
+            entry.proofExchangeId = proofExchangeId;
+            return entry;
+        });
+    }
+
+    public void revoke(UUID uuid) {
+        write(uuid, current -> {
+            if (current == null || !current.verified) return null;
+            Entry entry = new Entry();
+            entry.uuid = current.uuid;
+            entry.name = current.name;
+            entry.verified = false;
+            return entry;
+        });
+    }
+
+    /**
+     * Applies a version written by another server if it is newer than the one held here, and
+     * persists it. Applying the same or an older version again is a no-op, and versions dated
+     * too far ahead of this server's clock are refused so they cannot outrank every later change.
+     */
+    public boolean merge(Entry remote) {
+        if (remote == null || remote.uuid == null) return false;
+        if (remote.updatedAt > System.currentTimeMillis() + MAX_CLOCK_SKEW_MILLIS) {
+            logger.warning("Ignoring replicated record for " + remote.uuid + " dated " + remote.updatedAt + ", too far in the future");
+            return false;
+        }
+        boolean[] applied = new boolean[1];
+        entries.compute(remote.getUniqueId(), (uuid, current) -> {
+            if (current != null && !isNewer(remote, current)) return current;
+            applied[0] = true;
+            return remote;
+        });
+        if (!applied[0]) return false;
+
+        if (remote.name != null) {
+            uuidsByName.put(remote.name.toLowerCase(Locale.ROOT), remote.getUniqueId());
+        }
+        persist(remote);
+        return true;
+    }
+
+    // Versioned inside compute, so a merge landing between reading and writing cannot be overwritten
+    private void write(UUID uuid, Function<Entry, Entry> change) {
+        Entry[] written = new Entry[1];
+        entries.compute(uuid, (id, current) -> {
+            Entry next = change.apply(current);
+            if (next == null) return current;
+            next.updatedAt = nextVersion(current);
+            next.origin = origin;
+            written[0] = next;
+            return next;
+        });
+        Entry entry = written[0];
+        if (entry == null) return;
+
+        if (entry.name != null) {
+            uuidsByName.put(entry.name.toLowerCase(Locale.ROOT), uuid);
+        }
+        persist(entry);
+        Consumer<Entry> listener = changeListener;
+        if (listener != null) listener.accept(entry);
+    }
+
+    static boolean isNewer(Entry candidate, Entry current) {
+        if (candidate.updatedAt != current.updatedAt) return candidate.updatedAt > current.updatedAt;
+        return Objects.compare(candidate.origin, current.origin, Comparator.nullsFirst(Comparator.naturalOrder())) > 0;
+    }
+
+    // Never behind the version it replaces, even when another server's clock ran ahead of ours
+    private static long nextVersion(Entry current) {
+        long now = System.currentTimeMillis();
+        if (current == null) return now;
+        // Saturates rather than wrapping, should a bad version ever have been stored
+        return Math.max(now, current.updatedAt == Long.MAX_VALUE ? Long.MAX_VALUE : current.updatedAt + 1);
+    }
+
+    private void persist(Entry entry) {
+        pending.add(entry);
+
+        // Large bursts are written as soon as a batch fills instead of waiting for the timer
+        if (pending.size() >= batchSize && writer != null && flushQueued.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    private void index(Entry entry) {
+        if (entry == null || entry.uuid == null) return;
+        UUID uuid = entry.getUniqueId();
+        // Concurrent writers may append out of version order; a later line only loses to a newer version
+        Entry current = entries.get(uuid);
+        if (current != null && isNewer(current, entry)) return;
+        entries.put(uuid, entry);
+        if (entry.name != null) {
+            uuidsByName.put(entry.name.toLowerCase(Locale.ROOT), uuid);
+        }
+    }
+
+    public void flush() {
+        synchronized (writeLock) {
+            if (pending.isEmpty()) return;
+
+            List<Entry> batch = new ArrayList<>();
+            Entry entry;
+            while ((entry = pending.poll()) != null) {
+                batch.add(entry);
+            }
+
+            try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Entry record : batch) {
+                    out.write(gson.toJson(record));
+                    out.newLine();
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to persist " + batch.size() + " verification records: " + e.getMessage());
+                // Put the batch back in front of anything queued meanwhile so order is kept for the retry
+                List<Entry> retry = new ArrayList<>(batch);
+                while ((entry = pending.poll()) != null) {
+                    retry.add(entry);
+                }
+                pending.addAll(retry);
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<UUID, Entry> entry : entries.entrySet()) {
+                out.write(gson.toJson(entry.getValue()));
+                out.newLine();
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Compacted verification log to " + entries.size() + " records");
+    }
+
+    public void close() {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        flush();
+    }
+}
@@ -0,0 +1,112 @@
+package com.ssi.verification;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded receiver for ACA-Py admin webhooks. ACA-Py posts every event to
+ * {@code <webhook-url>/topic/<topic>/}, so the agent has to be started with
+ * {@code --webhook-url http://<host>:<port><path>} (append {@code #<api-key>} to send a key).
+ */
+public class WebhookServer {
+
+    public interface Listener {
+        void onEvent(String topic, JsonObject payload);
+    }
+
+    private final String host;
+    private final int port;
+    private final String basePath;
+    private final String apiKey;
+    private final Listener listener;
+    private final Logger logger;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public WebhookServer(String host, int port, String basePath, String apiKey, Listener listener, Logger logger) {
+        this.host = host;
+        this.port = port;
+        this.basePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+        this.apiKey = apiKey == null ? "" : apiKey;
+        this.listener = listener;
+        this.logger = logger;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "SSI-Webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(basePath + "/topic/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String topic = null;
+        JsonObject payload = null;
+        int status;
+
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                status = 405;
+            } else if (!apiKey.isEmpty() && !apiKey.equals(exchange.getRequestHeaders().getFirst("x-api-key"))) {
+                status = 401;
+            } else {
+                topic = topicOf(exchange.getRequestURI().getPath());
+                try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                    JsonElement body = JsonParser.parseReader(reader);
+                    payload = body.isJsonObject() ? body.getAsJsonObject() : null;
+                }
+                status = payload != null && !topic.isEmpty() ? 200 : 400;
+            }
+        } catch (Exception e) {
+            logger.warning("Rejected malformed webhook: " + e.getMessage());
+            status = 400;
+        }
+
+        // Acknowledge before dispatching so the agent never waits on plugin work
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+
+        if (status == 200) {
+            try {
+                listener.onEvent(topic, payload);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Webhook handler failed for topic " + topic, e);
+            }
+        }
+    }
+
+    private String topicOf(String path) {
+        String topic = path.substring(path.indexOf("/topic/") + "/topic/".length());
+        return topic.endsWith("/") ? topic.substring(0, topic.length() - 1) : topic;
+    }
+}